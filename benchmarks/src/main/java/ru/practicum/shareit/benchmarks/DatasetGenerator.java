@@ -0,0 +1,125 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.server.booking.model.BookingPhase;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Заполняет пустую базу синтетическими данными. Владельцы, арендаторы и вещи
+ * выбираются по Ципфу, поэтому пользователь с id=1 владеет больше всего вещами,
+ * а популярные вещи собирают большую часть бронирований и комментариев.
+ */
+public class DatasetGenerator {
+
+    private static final int BATCH_SIZE = 1000;
+    public static final List<String> WORDS = List.of(
+        "дрель", "перфоратор", "лестница", "палатка", "велосипед", "шуруповерт",
+        "пылесос", "проектор", "гитара", "самокат", "удочка", "мангал"
+    );
+
+    private final JdbcTemplate jdbc;
+    private final Random random;
+    private final LocalDateTime now = LocalDateTime.now();
+
+    public DatasetGenerator(JdbcTemplate jdbc, long seed) {
+        this.jdbc = jdbc;
+        this.random = new Random(seed);
+    }
+
+    public void generate(int users, int requests, int items, int bookings, int comments, double skew) {
+        ZipfSampler userRanks = new ZipfSampler(users, skew, random);
+        ZipfSampler itemRanks = new ZipfSampler(items, skew, random);
+
+        insert("INSERT INTO users (id, name, email) VALUES (?, ?, ?)", "user_seq", users,
+                i -> new Object[]{i, "user-" + i, "user-" + i + "@bench.ru"});
+
+        insert("INSERT INTO requests (id, description, requestor_id, created) VALUES (?, ?, ?, ?)", "request_seq",
+                requests,
+                i -> new Object[]{i, "Нужна " + word(), userRanks.next(), past(90)});
+
+        insert("INSERT INTO items (id, name, description, is_available, owner_id, request_id) " +
+               "VALUES (?, ?, ?, ?, ?, ?)",
+                "item_seq",
+                items,
+                i -> new Object[]{
+                    i,
+                    capitalize(word()) + " " + i,
+                    "Хорошая " + word() + ", почти " + word(),
+                    random.nextInt(10) != 0,
+                    userRanks.next(),
+                    requests > 0 && random.nextInt(10) == 0 ? random.nextInt(requests) + 1 : null
+                });
+
+        insert("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status, phase) " +
+               "VALUES (?, ?, ?, ?, ?, ?, ?)",
+                "booking_seq",
+                bookings,
+                i -> {
+                    LocalDateTime start = now.plusHours(random.nextInt(24 * 365 * 2) - 24 * 365);
+                    LocalDateTime end = start.plusHours(1 + random.nextInt(24 * 14));
+                    return new Object[]{
+                        i,
+                        Timestamp.valueOf(start),
+                        Timestamp.valueOf(end),
+                        itemRanks.next(),
+                        users - userRanks.next() + 1,
+                        status(),
+                        BookingPhase.at(start, end, now).name()
+                    };
+                });
+
+        insert("INSERT INTO comments (id, text, item_id, author_id, created) VALUES (?, ?, ?, ?, ?)", "comment_seq",
+                comments,
+                i -> new Object[]{i, "Отличная " + word(), itemRanks.next(), random.nextInt(users) + 1, past(365)});
+    }
+
+    /**
+     * Id выдаются последовательностями блоками, поэтому строки вставляются с явными
+     * id, а последовательность затем сдвигается за последний из них.
+     */
+    private void insert(String sql, String sequence, int count, Row row) {
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 1; i <= count; i++) {
+            batch.add(row.values(i));
+            if (batch.size() == BATCH_SIZE || i == count) {
+                jdbc.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        jdbc.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (count + 1));
+    }
+
+    private String word() {
+        return WORDS.get(random.nextInt(WORDS.size()));
+    }
+
+    private Timestamp past(int days) {
+        return Timestamp.valueOf(now.minusMinutes(random.nextInt(days * 24 * 60)));
+    }
+
+    private String status() {
+        int roll = random.nextInt(100);
+        if (roll < 70) {
+            return "APPROVED";
+        } else if (roll < 85) {
+            return "WAITING";
+        } else if (roll < 95) {
+            return "REJECTED";
+        }
+        return "CANCELED";
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    @FunctionalInterface
+    private interface Row {
+        Object[] values(int index);
+    }
+}
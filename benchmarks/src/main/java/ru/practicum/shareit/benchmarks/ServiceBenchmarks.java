@@ -0,0 +1,119 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.server.ShareItServer;
+import ru.practicum.shareit.server.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.server.booking.service.BookingService;
+import ru.practicum.shareit.server.item.dal.ItemRepository;
+import ru.practicum.shareit.server.item.dto.ItemWithCommentsResponseDto;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.item.service.ItemService;
+import ru.practicum.shareit.server.request.dto.RequestWithItemsResponseDto;
+import ru.practicum.shareit.server.request.service.RequestService;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Горячие пути сервисов на H2 в памяти. Пользователь с id=1 самый «тяжелый»:
+ * у него больше всего вещей, а значит и бронирований по ним. Open-in-view
+ * выключен, и методы чтения сервисов сами открывают read-only транзакцию, как
+ * внутри HTTP-запроса. Шаблон request дает такую же транзакцию прямому вызову
+ * репозитория в searchItems, а вызовы сервисов просто присоединяются к ней.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ServiceBenchmarks {
+
+    private static final Long HOT_USER_ID = 1L;
+
+    @Param("1000")
+    private int users;
+
+    @Param("200")
+    private int requests;
+
+    @Param("5000")
+    private int items;
+
+    @Param("50000")
+    private int bookings;
+
+    @Param("20000")
+    private int comments;
+
+    @Param("1.1")
+    private double skew;
+
+    @Param("42")
+    private long seed;
+
+    @Param("дрель")
+    private String searchText;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private BookingService bookingService;
+    private RequestService requestService;
+    private ItemRepository itemRepository;
+    private TransactionTemplate request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:shareit-bench;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driverClassName=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--logging.level.root=WARN");
+
+        new DatasetGenerator(context.getBean(JdbcTemplate.class), seed)
+                .generate(users, requests, items, bookings, comments, skew);
+
+        itemService = context.getBean(ItemService.class);
+        bookingService = context.getBean(BookingService.class);
+        requestService = context.getBean(RequestService.class);
+        itemRepository = context.getBean(ItemRepository.class);
+
+        request = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        request.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Collection<ItemWithCommentsResponseDto> itemsByOwner() {
+        return request.execute(status -> itemService.getItemsByUser(HOT_USER_ID));
+    }
+
+    @Benchmark
+    public List<BookingResponseDto> ownerBookings() {
+        return request.execute(status ->
+                bookingService.getAllOwnerBookingAtState(HOT_USER_ID, "ALL", null, null, 20));
+    }
+
+    @Benchmark
+    public Collection<RequestWithItemsResponseDto> otherUsersRequests() {
+        return request.execute(status -> requestService.getOtherUsersRequests(HOT_USER_ID));
+    }
+
+    @Benchmark
+    public Collection<Item> searchItems() {
+        return request.execute(status -> itemRepository.searchItems(searchText));
+    }
+}
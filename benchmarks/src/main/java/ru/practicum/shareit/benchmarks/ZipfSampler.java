@@ -0,0 +1,32 @@
+package ru.practicum.shareit.benchmarks;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Выборка рангов 1..n с распределением Ципфа: ранг 1 самый частый.
+ */
+public class ZipfSampler {
+
+    private final double[] cumulative;
+    private final Random random;
+
+    public ZipfSampler(int n, double exponent, Random random) {
+        this.cumulative = new double[n];
+        this.random = random;
+
+        double sum = 0;
+        for (int rank = 1; rank <= n; rank++) {
+            sum += 1.0 / Math.pow(rank, exponent);
+            cumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    public int next() {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return (index >= 0 ? index : -index - 1) + 1;
+    }
+}
@@ -2,20 +2,25 @@ package ru.practicum.shareit.gateway.booking;
 
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.gateway.booking.client.BookingClient;
 import ru.practicum.shareit.gateway.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.gateway.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.gateway.exception.ValidationException;
+import ru.practicum.shareit.gateway.proxy.ServerReadProxy;
 
-import java.util.Collection;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping(path = "/bookings")
 @AllArgsConstructor
 public class BookingGatewayController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final BookingClient client;
+    private final ServerReadProxy proxy;
 
     @PostMapping
     BookingResponseDto createBooking(@RequestBody
@@ -44,29 +49,57 @@ public class BookingGatewayController {
 
 
     @GetMapping("{bookingId}")
-    BookingResponseDto getBookingById(@RequestHeader("X-Sharer-User-Id")
-                                      Long userId,
-                                      @PathVariable Long bookingId) {
-        return client.getBookingById(userId, bookingId);
+    Object getBookingById(@RequestHeader("X-Sharer-User-Id")
+                          Long userId,
+                          @PathVariable Long bookingId) {
+        return proxy.get(() -> client.getBookingById(userId, bookingId));
     }
 
     @GetMapping
-    Collection<BookingResponseDto> getAllBookingAtState(
+    Object getAllBookingAtState(
             @RequestHeader("X-Sharer-User-Id")
             Long userId,
             @RequestParam(defaultValue = "ALL")
-            String state
+            String state,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime cursorStart,
+            @RequestParam(required = false)
+            Long cursorId,
+            @RequestParam(defaultValue = "20")
+            Integer size
     ) {
-        return client.getAllBookingAtState(userId, state);
+        checkPage(cursorStart, cursorId, size);
+
+        return proxy.get(() -> client.getAllBookingAtState(userId, state, cursorStart, cursorId, size));
     }
 
     @GetMapping("/owner")
-    Collection<BookingResponseDto> getAllOwnerBookingAtState(
+    Object getAllOwnerBookingAtState(
             @RequestHeader("X-Sharer-User-Id")
             Long userId,
             @RequestParam(defaultValue = "ALL")
-            String state
+            String state,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime cursorStart,
+            @RequestParam(required = false)
+            Long cursorId,
+            @RequestParam(defaultValue = "20")
+            Integer size
     ) {
-        return client.getAllOwnerBookingAtState(userId, state);
+        checkPage(cursorStart, cursorId, size);
+
+        return proxy.get(() -> client.getAllOwnerBookingAtState(userId, state, cursorStart, cursorId, size));
+    }
+
+    private void checkPage(LocalDateTime cursorStart, Long cursorId, Integer size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ValidationException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        if ((cursorStart == null) != (cursorId == null)) {
+            throw new ValidationException("cursorStart and cursorId must be passed together");
+        }
     }
 }
\ No newline at end of file
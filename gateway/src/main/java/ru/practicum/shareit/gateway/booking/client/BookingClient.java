@@ -2,11 +2,13 @@ package ru.practicum.shareit.gateway.booking.client;
 
 import jakarta.validation.Valid;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.gateway.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.gateway.booking.dto.BookingResponseDto;
 
-import java.util.Collection;
+import java.time.LocalDateTime;
+import java.util.List;
 
 
 @FeignClient(
@@ -32,12 +34,20 @@ public interface BookingClient {
             @PathVariable("bookingId") Long bookingId);
 
     @GetMapping
-    Collection<BookingResponseDto> getAllBookingAtState(
+    List<BookingResponseDto> getAllBookingAtState(
             @RequestHeader("X-Sharer-User-Id") Long userId,
-            @RequestParam(defaultValue = "ALL") String state);
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(value = "cursorStart", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorStart,
+            @RequestParam(value = "cursorId", required = false) Long cursorId,
+            @RequestParam("size") Integer size);
 
     @GetMapping("/owner")
-    Collection<BookingResponseDto> getAllOwnerBookingAtState(
+    List<BookingResponseDto> getAllOwnerBookingAtState(
             @RequestHeader("X-Sharer-User-Id") Long userId,
-            @RequestParam(defaultValue = "ALL") String state);
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(value = "cursorStart", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorStart,
+            @RequestParam(value = "cursorId", required = false) Long cursorId,
+            @RequestParam("size") Integer size);
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.gateway.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Занятость вещи в окне [from, to): слитые интервалы ожидающих и подтвержденных
+ * бронирований, обрезанные по границам окна.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemAvailabilityDto {
+
+    private Long itemId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<BusyIntervalDto> busy;
+}
@@ -1,15 +1,145 @@
 package ru.practicum.shareit.gateway.config;
 
+import feign.Capability;
 import feign.Client;
+import feign.Request;
+import feign.RequestInterceptor;
+import feign.ResponseInterceptor;
 import feign.hc5.ApacheHttp5Client;
+import feign.http2client.Http2Client;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
+@EnableConfigurationProperties(ServerHttpProperties.class)
 public class FeignConfig {
 
+    /**
+     * Feign передает таймауты в клиент с каждым запросом, поэтому они задаются
+     * здесь, а не только в настройках пула.
+     */
+    @Bean
+    public Request.Options feignOptions(ServerHttpProperties properties) {
+        return new Request.Options(
+                properties.getConnectTimeout().toMillis(), TimeUnit.MILLISECONDS,
+                properties.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS,
+                true);
+    }
+
+    /**
+     * Условные GET идут в server с If-None-Match клиента, а ETag из ответа
+     * server попадает в ответ gateway. 304 от server разбирает ErrorHandler.
+     */
     @Bean
-    public Client feignClient() {
-        return new ApacheHttp5Client();
+    public RequestInterceptor conditionalRequestInterceptor() {
+        return template -> {
+            if (!Request.HttpMethod.GET.name().equals(template.method())
+                    || !(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+                return;
+            }
+            String ifNoneMatch = attributes.getRequest().getHeader(HttpHeaders.IF_NONE_MATCH);
+            if (ifNoneMatch != null) {
+                template.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+            }
+        };
+    }
+
+    @Bean
+    public Capability feignMetricsCapability(MeterRegistry registry) {
+        return new FeignMetricsCapability(registry);
+    }
+
+    @Bean
+    public ResponseInterceptor etagResponseInterceptor() {
+        return (context, chain) -> {
+            Collection<String> etags = context.response().headers().get(HttpHeaders.ETAG);
+            if (etags != null && !etags.isEmpty()
+                    && RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                    && attributes.getResponse() != null) {
+                attributes.getResponse().setHeader(HttpHeaders.ETAG, etags.iterator().next());
+            }
+            return chain.next(context);
+        };
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "shareit-server.http.protocol", havingValue = "http_1_1", matchIfMissing = true)
+    static class PooledHttp1 {
+
+        @Bean(destroyMethod = "close")
+        public InstrumentedConnectionManager serverConnectionManager(ServerHttpProperties properties) {
+            InstrumentedConnectionManager manager = new InstrumentedConnectionManager();
+            manager.setMaxTotal(properties.getMaxConnections());
+            manager.setDefaultMaxPerRoute(properties.getMaxConnections());
+            manager.setDefaultConnectionConfig(ConnectionConfig.custom()
+                    .setConnectTimeout(timeout(properties.getConnectTimeout()))
+                    .setSocketTimeout(timeout(properties.getReadTimeout()))
+                    .setValidateAfterInactivity(timeValue(properties.getValidateAfterInactivity()))
+                    .build());
+            return manager;
+        }
+
+        @Bean(destroyMethod = "close")
+        public CloseableHttpClient serverHttpClient(InstrumentedConnectionManager connectionManager,
+                                                    ServerHttpProperties properties) {
+            return HttpClients.custom()
+                    .setConnectionManager(connectionManager)
+                    .setDefaultRequestConfig(RequestConfig.custom()
+                            .setConnectionRequestTimeout(timeout(properties.getLeaseTimeout()))
+                            .setResponseTimeout(timeout(properties.getReadTimeout()))
+                            .setConnectionKeepAlive(timeValue(properties.getKeepAlive()))
+                            .build())
+                    .evictExpiredConnections()
+                    .evictIdleConnections(timeValue(properties.getIdleEviction()))
+                    .disableAutomaticRetries()
+                    .build();
+        }
+
+        @Bean
+        public Client feignClient(CloseableHttpClient serverHttpClient) {
+            return new ApacheHttp5Client(serverHttpClient);
+        }
+    }
+
+    /**
+     * HTTP/2 без TLS через java.net.http: все запросы мультиплексируются в одно
+     * соединение, пула нет, поэтому и метрик пула в этом режиме нет.
+     */
+    @Configuration
+    @ConditionalOnProperty(name = "shareit-server.http.protocol", havingValue = "h2c")
+    static class H2c {
+
+        @Bean
+        public Client feignClient(ServerHttpProperties properties) {
+            return new Http2Client(HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .connectTimeout(properties.getConnectTimeout())
+                    .build());
+        }
+    }
+
+    private static Timeout timeout(Duration duration) {
+        return Timeout.ofMilliseconds(duration.toMillis());
+    }
+
+    private static TimeValue timeValue(Duration duration) {
+        return TimeValue.ofMilliseconds(duration.toMillis());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.gateway.config;
+
+import feign.Capability;
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Время каждого вызова server через Feign в метрике gateway.feign.requests с тегами
+ * client (имя @FeignClient), method (метод интерфейса клиента) и status (код ответа
+ * или IO_ERROR). Вместе с http.server.requests gateway и server показывает, сколько
+ * времени запрос провел в сети и в самом gateway.
+ */
+public class FeignMetricsCapability implements Capability {
+
+    private static final String UNKNOWN = "unknown";
+
+    private final Timer.MeterProvider<Timer> timers;
+
+    public FeignMetricsCapability(MeterRegistry registry) {
+        this.timers = Timer.builder("gateway.feign.requests")
+                .description("Duration of Feign calls to server")
+                .withRegistry(registry);
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> {
+            String status = "IO_ERROR";
+            long start = System.nanoTime();
+            try {
+                Response response = client.execute(request, options);
+                status = String.valueOf(response.status());
+                return response;
+            } finally {
+                timers.withTags("client", clientName(request), "method", methodName(request), "status", status)
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+
+    private static String clientName(Request request) {
+        RequestTemplate template = request.requestTemplate();
+        return template == null || template.feignTarget() == null ? UNKNOWN : template.feignTarget().name();
+    }
+
+    private static String methodName(Request request) {
+        RequestTemplate template = request.requestTemplate();
+        return template == null || template.methodMetadata() == null
+                ? UNKNOWN : template.methodMetadata().method().getName();
+    }
+}
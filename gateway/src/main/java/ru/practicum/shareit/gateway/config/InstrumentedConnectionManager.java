@@ -0,0 +1,81 @@
+package ru.practicum.shareit.gateway.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.Timeout;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Пул соединений к server с метриками: время ожидания соединения из пула
+ * (gateway.http.pool.lease) и заполненность пула. Если время ожидания растет
+ * при saturation около 1, пул меньше потока запросов в server.
+ */
+public class InstrumentedConnectionManager extends PoolingHttpClientConnectionManager implements MeterBinder {
+
+    private Timer leaseTimer;
+    private Timer leaseTimeoutTimer;
+
+    @Override
+    public LeaseRequest lease(String id, HttpRoute route, Timeout requestTimeout, Object state) {
+        LeaseRequest request = super.lease(id, route, requestTimeout, state);
+        long start = System.nanoTime();
+
+        return new LeaseRequest() {
+            @Override
+            public ConnectionEndpoint get(Timeout timeout)
+                    throws InterruptedException, ExecutionException, TimeoutException {
+                try {
+                    ConnectionEndpoint endpoint = request.get(timeout);
+                    record(leaseTimer, start);
+                    return endpoint;
+                } catch (TimeoutException e) {
+                    record(leaseTimeoutTimer, start);
+                    throw e;
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return request.cancel();
+            }
+        };
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        leaseTimer = leaseTimer(registry, "success");
+        leaseTimeoutTimer = leaseTimer(registry, "timeout");
+
+        registry.gauge("gateway.http.pool.leased", this, manager -> manager.getTotalStats().getLeased());
+        registry.gauge("gateway.http.pool.available", this, manager -> manager.getTotalStats().getAvailable());
+        registry.gauge("gateway.http.pool.pending", this, manager -> manager.getTotalStats().getPending());
+        registry.gauge("gateway.http.pool.max", this, manager -> manager.getTotalStats().getMax());
+        registry.gauge("gateway.http.pool.saturation", this, manager -> {
+            PoolStats stats = manager.getTotalStats();
+            return stats.getMax() == 0 ? 0 : (double) stats.getLeased() / stats.getMax();
+        });
+    }
+
+    private static Timer leaseTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("gateway.http.pool.lease")
+                .description("Time spent waiting for a pooled connection to the server")
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+    }
+
+    private static void record(Timer timer, long start) {
+        if (timer != null) {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки HTTP-транспорта Feign-клиентов от gateway к server.
+ * Все запросы идут на один маршрут, поэтому лимит на маршрут равен общему.
+ */
+@Data
+@ConfigurationProperties(prefix = "shareit-server.http")
+public class ServerHttpProperties {
+
+    private Protocol protocol = Protocol.HTTP_1_1;
+
+    private int maxConnections = 200;
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    private Duration readTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Сколько ждать свободного соединения из пула, прежде чем отказать запросу.
+     */
+    private Duration leaseTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Должен быть меньше server.tomcat.keep-alive-timeout, иначе gateway будет
+     * брать из пула соединения, которые server уже закрыл.
+     */
+    private Duration keepAlive = Duration.ofSeconds(30);
+
+    private Duration idleEviction = Duration.ofSeconds(30);
+
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+    public enum Protocol {
+        HTTP_1_1,
+        H2C
+    }
+}
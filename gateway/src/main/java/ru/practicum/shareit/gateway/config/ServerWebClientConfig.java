@@ -0,0 +1,42 @@
+package ru.practicum.shareit.gateway.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Неблокирующий клиент к server для прокси-пути и потока инвалидаций.
+ * Пул и таймауты берутся из тех же shareit-server.http.*, что и у Feign.
+ */
+@Configuration
+public class ServerWebClientConfig {
+
+    @Bean
+    public WebClient serverWebClient(WebClient.Builder builder,
+                                     ServerHttpProperties properties,
+                                     @Value("${shareit-server.url}") String serverUrl,
+                                     @Value("${shareit-server.proxy.max-body-size:16MB}") DataSize maxBodySize) {
+        ConnectionProvider connections = ConnectionProvider.builder("shareit-server")
+                .maxConnections(properties.getMaxConnections())
+                .pendingAcquireTimeout(properties.getLeaseTimeout())
+                .maxIdleTime(properties.getKeepAlive())
+                .evictInBackground(properties.getIdleEviction())
+                .metrics(true)
+                .build();
+        HttpClient http = HttpClient.create(connections)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getReadTimeout());
+
+        return builder
+                .baseUrl(serverUrl)
+                .clientConnector(new ReactorClientHttpConnector(http))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize((int) maxBodySize.toBytes()))
+                .build();
+    }
+}
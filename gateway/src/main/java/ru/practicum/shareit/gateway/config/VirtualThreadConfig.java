@@ -0,0 +1,27 @@
+package ru.practicum.shareit.gateway.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Включается вместе со spring.threads.virtual.enabled (профиль virtual).
+ * Запросы к server при этом ждут в очереди пула соединений Feign, а не
+ * занимают потоки Tomcat, поэтому lease-timeout в этом профиле больше.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean(destroyMethod = "close")
+    public PinnedThreadMonitor pinnedThreadMonitor(
+            MeterRegistry registry,
+            @Value("${shareit.threads.pinned-threshold:20ms}") Duration threshold) {
+        return new PinnedThreadMonitor(registry, threshold);
+    }
+}
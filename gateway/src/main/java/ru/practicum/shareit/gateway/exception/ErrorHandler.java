@@ -13,6 +13,11 @@ public class ErrorHandler {
 
     @ExceptionHandler(FeignException.class)
     public ResponseEntity<ErrorResponse> handleFeignException(FeignException ex) {
+        // ETag server уже переложен в ответ etagResponseInterceptor из FeignConfig
+        if (ex.status() == HttpStatus.NOT_MODIFIED.value()) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
         HttpStatus status = HttpStatus.valueOf(ex.status());
 
         ErrorResponse errorResponse = new ErrorResponse(
@@ -2,11 +2,15 @@ package ru.practicum.shareit.gateway.item;
 
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.gateway.exception.ValidationException;
 import ru.practicum.shareit.gateway.item.client.ItemClient;
 import ru.practicum.shareit.gateway.item.dto.*;
+import ru.practicum.shareit.gateway.proxy.ServerReadProxy;
 
-import java.util.Collection;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Set;
 
 
@@ -15,7 +19,11 @@ import java.util.Set;
 @AllArgsConstructor
 public class ItemGatewayController {
 
+    private static final int MAX_COMMENTS_PAGE_SIZE = 100;
+    private static final int MAX_BATCH_SIZE = 1000;
+
     private final ItemClient itemClient;
+    private final ServerReadProxy proxy;
 
     @PostMapping
     public ItemResponseDto createItem(
@@ -28,6 +36,24 @@ public class ItemGatewayController {
 
     }
 
+    /**
+     * Строки проверяет server: ошибка в одной строке не отменяет остальные,
+     * а возвращается в ее результате.
+     */
+    @PostMapping("/batch")
+    public List<ItemBatchResultDto> saveItems(
+            @RequestBody
+            List<ItemBatchRequestDto> rows,
+            @RequestHeader("X-Sharer-User-Id")
+            Long userId) {
+
+        if (rows.isEmpty() || rows.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("Batch must contain from 1 to " + MAX_BATCH_SIZE + " items");
+        }
+
+        return itemClient.saveItems(rows, userId);
+    }
+
     @PatchMapping("/{itemId}")
     public ItemResponseDto updateItem(
             @PathVariable long itemId,
@@ -40,22 +66,52 @@ public class ItemGatewayController {
     }
 
     @GetMapping("/{itemId}")
-    public ItemWithCommentsResponseDto getItem(
+    public Object getItem(
             @PathVariable
             Long itemId,
             @RequestHeader("X-Sharer-User-Id")
-            Long userId) {
-        return itemClient.getItem(itemId, userId);
+            Long userId,
+            @RequestParam(defaultValue = "0")
+            Integer from,
+            @RequestParam(defaultValue = "20")
+            Integer size) {
+
+        if (from < 0 || size < 1 || size > MAX_COMMENTS_PAGE_SIZE) {
+            throw new ValidationException("Comments page must have from >= 0 and size between 1 and "
+                    + MAX_COMMENTS_PAGE_SIZE);
+        }
+
+        return proxy.getCached(true, () -> itemClient.getItem(itemId, userId, from, size));
     }
 
     @GetMapping
-    public Collection<ItemWithCommentsResponseDto> getItemsByUser(@RequestHeader("X-Sharer-User-Id")
-                                                                  Long userId) {
-        return itemClient.getItemsByUser(userId);
+    public Object getItemsByUser(@RequestHeader("X-Sharer-User-Id")
+                                 Long userId) {
+        return proxy.get(() -> itemClient.getItemsByUser(userId));
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public Object getAvailability(
+            @PathVariable
+            Long itemId,
+            @RequestHeader("X-Sharer-User-Id")
+            Long userId,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime from,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime to) {
+
+        if (from != null && to != null && !to.isAfter(from)) {
+            throw new ValidationException("Availability window must end after its start");
+        }
+
+        return proxy.get(() -> itemClient.getAvailability(itemId, userId, from, to));
     }
 
     @GetMapping("/search")
-    public Collection<ItemResponseDto> searchItems(
+    public Object searchItems(
             @RequestHeader("X-Sharer-User-Id")
             Long userId,
             @RequestParam("text")
@@ -65,7 +121,7 @@ public class ItemGatewayController {
             return Set.of();
         }
 
-        return itemClient.searchItems(userId, searchString);
+        return proxy.get(() -> itemClient.searchItems(userId, searchString));
     }
 
     @PostMapping("/{itemId}/comment")
@@ -1,10 +1,14 @@
 package ru.practicum.shareit.gateway.item.client;
 
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.gateway.booking.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.gateway.item.dto.*;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 
 @FeignClient(
         url = "${shareit-server.url}",
@@ -17,6 +21,11 @@ public interface ItemClient {
             @RequestBody ItemRequestDto itemDto,
             @RequestHeader("X-Sharer-User-Id") Long userId);
 
+    @PostMapping("/batch")
+    List<ItemBatchResultDto> saveItems(
+            @RequestBody List<ItemBatchRequestDto> rows,
+            @RequestHeader("X-Sharer-User-Id") Long userId);
+
     @PatchMapping("/{itemId}")
     ItemResponseDto updateItem(
             @PathVariable("itemId") Long itemId,
@@ -26,12 +35,23 @@ public interface ItemClient {
     @GetMapping("/{itemId}")
     ItemWithCommentsResponseDto getItem(
             @PathVariable("itemId") Long itemId,
-            @RequestHeader("X-Sharer-User-Id") Long userId);
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam("from") Integer from,
+            @RequestParam("size") Integer size);
 
     @GetMapping
     Collection<ItemWithCommentsResponseDto> getItemsByUser(
             @RequestHeader("X-Sharer-User-Id") Long userId);
 
+    @GetMapping("/{itemId}/availability")
+    ItemAvailabilityDto getAvailability(
+            @PathVariable("itemId") Long itemId,
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam(value = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to);
+
     @GetMapping("/search")
     Collection<ItemResponseDto> searchItems(
             @RequestHeader("X-Sharer-User-Id") Long userId,
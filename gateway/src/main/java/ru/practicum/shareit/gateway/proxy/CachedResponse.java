@@ -0,0 +1,33 @@
+package ru.practicum.shareit.gateway.proxy;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Arrays;
+
+/**
+ * Тело ответа server с его ETag и моментом последней проверки свежести.
+ */
+record CachedResponse(byte[] body, MediaType contentType, String etag, long validatedAt) {
+
+    CachedResponse revalidated(long now) {
+        return new CachedResponse(body, contentType, etag, now);
+    }
+
+    /**
+     * @param ifNoneMatch заголовок клиента: если в нем этот же ETag, тело не отправляется
+     */
+    ResponseEntity<byte[]> toResponse(String ifNoneMatch) {
+        if (ifNoneMatch != null && (ifNoneMatch.trim().equals("*")
+                || Arrays.stream(ifNoneMatch.split(",")).map(String::trim).anyMatch(etag::equals))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag);
+        if (contentType != null) {
+            response.contentType(contentType);
+        }
+        return response.body(body);
+    }
+}
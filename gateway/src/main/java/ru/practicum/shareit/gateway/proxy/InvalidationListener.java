@@ -0,0 +1,92 @@
+package ru.practicum.shareit.gateway.proxy;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClientRequest;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+
+/**
+ * Держит подписку на /events/invalidations server и сбрасывает из
+ * {@link ResponseCache} измененные пути. При обрыве кэш перестает отдавать
+ * записи без перепроверки, при переподключении очищается целиком, так как
+ * события за время разрыва потеряны.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit-server.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class InvalidationListener {
+
+    private static final String EVENT_NAME = "invalidate";
+    private static final Duration MIN_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+    private final WebClient client;
+    private final ResponseCache cache;
+    private final Duration eventsTimeout;
+    private Disposable subscription;
+
+    public InvalidationListener(WebClient serverWebClient,
+                                ResponseCache cache,
+                                @Value("${shareit-server.cache.events-timeout:45s}") Duration eventsTimeout) {
+        this.client = serverWebClient;
+        this.cache = cache;
+        this.eventsTimeout = eventsTimeout;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void subscribe() {
+        subscription = Flux.defer(this::events)
+                .doOnComplete(cache::disconnected)
+                .doOnError(error -> cache.disconnected())
+                .repeatWhen(completed -> completed.delayElements(MIN_BACKOFF))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, MIN_BACKOFF)
+                        .maxBackoff(MAX_BACKOFF)
+                        .doBeforeRetry(signal -> log.warn("Invalidation stream lost, reconnecting: {}",
+                                signal.failure().getMessage())))
+                .subscribe(this::onEvent);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    private Flux<ServerSentEvent<String>> events() {
+        boolean[] first = {true};
+        return client.get()
+                .uri("/events/invalidations")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .httpRequest(request -> request.<HttpClientRequest>getNativeRequest().responseTimeout(eventsTimeout))
+                .retrieve()
+                .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<String>>() {
+                })
+                .doOnNext(event -> {
+                    if (first[0]) {
+                        first[0] = false;
+                        cache.connected();
+                        log.info("Invalidation stream connected");
+                    }
+                });
+    }
+
+    private void onEvent(ServerSentEvent<String> event) {
+        if (EVENT_NAME.equals(event.event()) && event.data() != null) {
+            cache.invalidate(event.data());
+        }
+    }
+}
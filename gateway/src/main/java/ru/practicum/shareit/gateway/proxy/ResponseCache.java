@@ -0,0 +1,116 @@
+package ru.practicum.shareit.gateway.proxy;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ограниченный по объему кэш тел GET-ответов server. Запись считается свежей
+ * fresh-for после последней проверки и только пока открыт поток инвалидаций;
+ * иначе перед выдачей она перепроверяется по ETag.
+ * <p>
+ * Счетчик поколений защищает от гонки с инвалидацией: ответ, запрошенный до
+ * события, не попадет в кэш после него. Ключи записей сгруппированы по пути,
+ * так что событие сбрасывает только записи своего пути, не просматривая весь кэш.
+ * Ключ попадает в индекс после записи в кэш и убирается при вытеснении, поэтому
+ * в индексе может остаться лишний ключ, но не может не хватать нужного.
+ */
+@Component
+public class ResponseCache {
+
+    private final boolean enabled;
+    private final long freshForNanos;
+    private final Cache<Key, CachedResponse> entries;
+    private final ConcurrentMap<String, Set<Key>> keysByPath = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private volatile boolean live;
+
+    public ResponseCache(@Value("${shareit-server.cache.enabled:true}") boolean enabled,
+                         @Value("${shareit-server.cache.max-size:64MB}") DataSize maxSize,
+                         @Value("${shareit-server.cache.fresh-for:5s}") Duration freshFor,
+                         MeterRegistry registry) {
+        this.enabled = enabled;
+        this.freshForNanos = freshFor.toNanos();
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .<Key, CachedResponse>weigher((key, response) -> response.body().length)
+                .evictionListener((Key key, CachedResponse response, RemovalCause cause) -> unindex(key))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, entries, "gateway.responses");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    CachedResponse get(Key key) {
+        return entries.getIfPresent(key);
+    }
+
+    boolean isFresh(CachedResponse response, long now) {
+        return live && now - response.validatedAt() < freshForNanos;
+    }
+
+    long generation() {
+        return generation.get();
+    }
+
+    void put(Key key, CachedResponse response, long seenGeneration) {
+        if (generation.get() != seenGeneration) {
+            return;
+        }
+        entries.put(key, response);
+        keysByPath.compute(key.path(), (path, keys) -> {
+            Set<Key> indexed = keys == null ? ConcurrentHashMap.newKeySet() : keys;
+            indexed.add(key);
+            return indexed;
+        });
+        if (generation.get() != seenGeneration) {
+            entries.invalidate(key);
+        }
+    }
+
+    void invalidate(String path) {
+        generation.incrementAndGet();
+        Set<Key> keys = keysByPath.remove(path);
+        if (keys != null) {
+            entries.invalidateAll(keys);
+        }
+    }
+
+    void connected() {
+        generation.incrementAndGet();
+        keysByPath.clear();
+        entries.invalidateAll();
+        live = true;
+    }
+
+    void disconnected() {
+        live = false;
+    }
+
+    private void unindex(Key key) {
+        keysByPath.computeIfPresent(key.path(), (path, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    /**
+     * userId заполняется только для ответов, которые зависят от пользователя.
+     */
+    record Key(String path, String query, String userId) {
+    }
+}
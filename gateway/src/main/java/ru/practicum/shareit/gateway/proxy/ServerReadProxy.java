@@ -0,0 +1,145 @@
+package ru.practicum.shareit.gateway.proxy;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.function.Supplier;
+
+/**
+ * Путь чтения от gateway к server. Контроллер сначала проверяет параметры,
+ * затем при shareit-server.proxy.enabled=true тот же GET с тем же путем,
+ * query и X-Sharer-User-Id уходит в server через неблокирующий WebClient,
+ * а тело ответа возвращается клиенту байтами, без разбора в DTO. Статус и
+ * Content-Type берутся из ответа server, включая ошибки. Иначе Feign-клиент
+ * вызывается синхронно и его результат возвращается как есть, как раньше.
+ * В обоих случаях If-None-Match клиента уходит в server, а ETag и 304
+ * возвращаются клиенту.
+ * <p>
+ * Карточки, запрошенные через {@link #getCached}, при включенном кэше идут
+ * через WebClient независимо от enabled, а успешные ответы с ETag сохраняются
+ * в {@link ResponseCache}.
+ * <p>
+ * Методы возвращают {@link Mono} только на пути WebClient, поэтому
+ * контроллеры объявляют результат как Object.
+ */
+@Component
+public class ServerReadProxy {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final boolean enabled;
+    private final String serverUrl;
+    private final WebClient client;
+    private final ResponseCache cache;
+
+    public ServerReadProxy(WebClient serverWebClient,
+                           ResponseCache cache,
+                           @Value("${shareit-server.url}") String serverUrl,
+                           @Value("${shareit-server.proxy.enabled:false}") boolean enabled) {
+        this.client = serverWebClient;
+        this.cache = cache;
+        this.serverUrl = serverUrl;
+        this.enabled = enabled;
+    }
+
+    public Object get(Supplier<?> feignCall) {
+        if (!enabled) {
+            return feignCall.get();
+        }
+
+        HttpServletRequest request = currentRequest();
+        return request(request, request.getHeader(HttpHeaders.IF_NONE_MATCH)).exchangeToMono(ServerReadProxy::relay);
+    }
+
+    /**
+     * @param perUser ответ зависит от X-Sharer-User-Id, например даты
+     *                бронирований вещи видит только владелец
+     */
+    public Object getCached(boolean perUser, Supplier<?> feignCall) {
+        if (!cache.isEnabled()) {
+            return get(feignCall);
+        }
+
+        HttpServletRequest request = currentRequest();
+        ResponseCache.Key key = new ResponseCache.Key(request.getRequestURI(), request.getQueryString(),
+                perUser ? request.getHeader(USER_HEADER) : null);
+
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        CachedResponse cached = cache.get(key);
+        if (cached != null && cache.isFresh(cached, System.nanoTime())) {
+            return Mono.just(cached.toResponse(ifNoneMatch));
+        }
+
+        long generation = cache.generation();
+        return request(request, cached == null ? ifNoneMatch : cached.etag())
+                .exchangeToMono(response -> {
+                    if (cached != null && response.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                        return response.releaseBody().then(Mono.fromSupplier(() ->
+                                store(key, cached.revalidated(System.nanoTime()), generation, ifNoneMatch)));
+                    }
+
+                    String etag = response.headers().asHttpHeaders().getETag();
+                    if (!response.statusCode().is2xxSuccessful() || etag == null) {
+                        return relay(response);
+                    }
+
+                    MediaType contentType = response.headers().contentType().orElse(null);
+                    return response.bodyToMono(byte[].class)
+                            .defaultIfEmpty(new byte[0])
+                            .map(body -> store(key, new CachedResponse(body, contentType, etag, System.nanoTime()),
+                                    generation, ifNoneMatch));
+                });
+    }
+
+    private WebClient.RequestHeadersSpec<?> request(HttpServletRequest request, String etag) {
+        String query = request.getQueryString();
+        URI uri = URI.create(serverUrl + request.getRequestURI() + (query == null ? "" : "?" + query));
+
+        return client.get()
+                .uri(uri)
+                .headers(headers -> {
+                    String userId = request.getHeader(USER_HEADER);
+                    if (userId != null) {
+                        headers.set(USER_HEADER, userId);
+                    }
+                    if (etag != null) {
+                        headers.setIfNoneMatch(etag);
+                    }
+                })
+                .accept(MediaType.APPLICATION_JSON);
+    }
+
+    private ResponseEntity<byte[]> store(ResponseCache.Key key, CachedResponse response, long generation,
+                                         String ifNoneMatch) {
+        cache.put(key, response, generation);
+        return response.toResponse(ifNoneMatch);
+    }
+
+    private static HttpServletRequest currentRequest() {
+        return ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
+    }
+
+    private static Mono<ResponseEntity<byte[]>> relay(ClientResponse response) {
+        HttpHeaders headers = new HttpHeaders();
+        response.headers().contentType().ifPresent(headers::setContentType);
+        String etag = response.headers().asHttpHeaders().getETag();
+        if (etag != null) {
+            headers.setETag(etag);
+        }
+
+        return response.bodyToMono(byte[].class)
+                .defaultIfEmpty(new byte[0])
+                .map(body -> ResponseEntity.status(response.statusCode()).headers(headers).body(body));
+    }
+}
@@ -2,12 +2,10 @@ package ru.practicum.shareit.gateway.request;
 
 import lombok.AllArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.gateway.proxy.ServerReadProxy;
 import ru.practicum.shareit.gateway.request.client.RequestClient;
 import ru.practicum.shareit.gateway.request.dto.RequestRequestDto;
 import ru.practicum.shareit.gateway.request.dto.RequestResponseDto;
-import ru.practicum.shareit.gateway.request.dto.RequestWithItemsResponseDto;
-
-import java.util.Collection;
 
 
 @RestController
@@ -16,6 +14,7 @@ import java.util.Collection;
 public class RequestGatewayController {
 
     private final RequestClient client;
+    private final ServerReadProxy proxy;
 
     @PostMapping
     public RequestResponseDto createRequest(
@@ -27,29 +26,29 @@ public class RequestGatewayController {
     }
 
     @GetMapping
-    public Collection<RequestWithItemsResponseDto> getUserRequests(
+    public Object getUserRequests(
             @RequestHeader("X-Sharer-User-Id")
             Long userId) {
 
 
-        return client.getUserRequests(userId);
+        return proxy.get(() -> client.getUserRequests(userId));
     }
 
     @GetMapping("/all")
-    public Collection<RequestWithItemsResponseDto> getOtherUsersRequests(
+    public Object getOtherUsersRequests(
             @RequestHeader("X-Sharer-User-Id")
             Long userId) {
 
-        return client.getOtherUsersRequests(userId);
+        return proxy.get(() -> client.getOtherUsersRequests(userId));
 
     }
 
     @GetMapping("/{requestId}")
-    public RequestWithItemsResponseDto getRequestById(
+    public Object getRequestById(
             @PathVariable
             Long requestId) {
 
-        return client.getRequestById(requestId);
+        return proxy.getCached(false, () -> client.getRequestById(requestId));
 
     }
 }
\ No newline at end of file
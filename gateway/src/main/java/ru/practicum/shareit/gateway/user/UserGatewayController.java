@@ -3,6 +3,7 @@ package ru.practicum.shareit.gateway.user;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.gateway.proxy.ServerReadProxy;
 import ru.practicum.shareit.gateway.user.client.UserClient;
 import ru.practicum.shareit.gateway.user.dto.UserRequestDto;
 import ru.practicum.shareit.gateway.user.dto.UserResponseDto;
@@ -15,6 +16,7 @@ import ru.practicum.shareit.gateway.user.dto.UserUpdateRequestDto;
 public class UserGatewayController {
 
     private final UserClient userClient;
+    private final ServerReadProxy proxy;
 
     @PostMapping
     public UserResponseDto createUser(@RequestBody
@@ -24,8 +26,8 @@ public class UserGatewayController {
     }
 
     @GetMapping("/{userId}")
-    public UserResponseDto getUserById(@PathVariable long userId) {
-        return userClient.getUserById(userId);
+    public Object getUserById(@PathVariable long userId) {
+        return proxy.getCached(false, () -> userClient.getUserById(userId));
     }
 
 
@@ -131,7 +131,7 @@ class BookingGatewayControllerTest {
 
     @Test
     void getAllBookingAtState_ReturnsList() throws Exception {
-        when(bookingClient.getAllBookingAtState(eq(2L), eq("ALL")))
+        when(bookingClient.getAllBookingAtState(eq(2L), eq("ALL"), isNull(), isNull(), eq(20)))
                 .thenReturn(List.of(bookingResponseDto));
 
         mvc.perform(get("/bookings")
@@ -143,7 +143,7 @@ class BookingGatewayControllerTest {
 
     @Test
     void getAllOwnerBookingAtState_ReturnsList() throws Exception {
-        when(bookingClient.getAllOwnerBookingAtState(eq(1L), eq("ALL")))
+        when(bookingClient.getAllOwnerBookingAtState(eq(1L), eq("ALL"), isNull(), isNull(), eq(20)))
                 .thenReturn(List.of(bookingResponseDto));
 
         mvc.perform(get("/bookings/owner")
@@ -153,9 +153,29 @@ class BookingGatewayControllerTest {
                 .andExpect(jsonPath("$.size()").value(1));
     }
 
+    @Test
+    void getAllBookingAtState_InvalidPageSize_ReturnsBadRequest() throws Exception {
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 2L)
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookingClient);
+    }
+
+    @Test
+    void getAllOwnerBookingAtState_IncompleteCursor_ReturnsBadRequest() throws Exception {
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("cursorStart", "2030-01-01T12:00:00"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookingClient);
+    }
+
     @Test
     void getAllBookingAtState_Waiting_ReturnsWaitingBookings() throws Exception {
-        when(bookingClient.getAllBookingAtState(eq(1L), eq("WAITING")))
+        when(bookingClient.getAllBookingAtState(eq(1L), eq("WAITING"), isNull(), isNull(), eq(20)))
                 .thenReturn(List.of(createBookingResponseDto(BookingStatusDto.WAITING)));
 
         mvc.perform(get("/bookings")
@@ -168,7 +188,7 @@ class BookingGatewayControllerTest {
 
     @Test
     void getAllBookingAtState_Approved_ReturnsApprovedBookings() throws Exception {
-        when(bookingClient.getAllBookingAtState(eq(1L), eq("APPROVED")))
+        when(bookingClient.getAllBookingAtState(eq(1L), eq("APPROVED"), isNull(), isNull(), eq(20)))
                 .thenReturn(List.of(createBookingResponseDto(BookingStatusDto.APPROVED)));
 
         mvc.perform(get("/bookings")
@@ -181,7 +201,7 @@ class BookingGatewayControllerTest {
 
     @Test
     void getAllBookingAtState_Rejected_ReturnsRejectedBookings() throws Exception {
-        when(bookingClient.getAllBookingAtState(eq(1L), eq("REJECTED")))
+        when(bookingClient.getAllBookingAtState(eq(1L), eq("REJECTED"), isNull(), isNull(), eq(20)))
                 .thenReturn(List.of(createBookingResponseDto(BookingStatusDto.REJECTED)));
 
         mvc.perform(get("/bookings")
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.gateway.config;
+
+import feign.Feign;
+import feign.RequestLine;
+import feign.Response;
+import feign.RetryableException;
+import feign.Retryer;
+import feign.Target;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeignMetricsCapabilityTest {
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void callsAreTimedByClientMethodAndStatus() {
+        ItemsApi api = client(false);
+
+        api.getItems();
+        api.getItems();
+
+        Timer timer = registry.find("gateway.feign.requests")
+                .tags("client", "item-client", "method", "getItems", "status", "200")
+                .timer();
+        assertNotNull(timer);
+        assertEquals(2, timer.count());
+    }
+
+    @Test
+    void failedCallIsTimedAsIoError() {
+        ItemsApi api = client(true);
+
+        assertThrows(RetryableException.class, api::getItems);
+
+        assertNotNull(registry.find("gateway.feign.requests")
+                .tags("method", "getItems", "status", "IO_ERROR")
+                .timer());
+    }
+
+    private ItemsApi client(boolean fail) {
+        return Feign.builder()
+                .addCapability(new FeignMetricsCapability(registry))
+                .retryer(Retryer.NEVER_RETRY)
+                .client((request, options) -> {
+                    if (fail) {
+                        throw new IOException("connection refused");
+                    }
+                    return Response.builder()
+                            .status(200)
+                            .request(request)
+                            .body("[]", StandardCharsets.UTF_8)
+                            .build();
+                })
+                .target(new Target.HardCodedTarget<>(ItemsApi.class, "item-client", "http://server"));
+    }
+
+    interface ItemsApi {
+
+        @RequestLine("GET /items")
+        String getItems();
+    }
+}
@@ -20,7 +20,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@SpringBootTest
+@SpringBootTest(properties = "shareit-server.cache.enabled=false")
 @AutoConfigureMockMvc
 class ItemGatewayControllerTest {
 
@@ -100,7 +100,7 @@ class ItemGatewayControllerTest {
 
     @Test
     void getItemById_ValidId_ReturnsItemWithComments() throws Exception {
-        when(itemClient.getItem(eq(1L), eq(100L))).thenReturn(itemWithComments);
+        when(itemClient.getItem(eq(1L), eq(100L), eq(0), eq(20))).thenReturn(itemWithComments);
 
         mvc.perform(get("/items/{itemId}", 1L)
                         .header("X-Sharer-User-Id", 100L))
@@ -109,6 +109,16 @@ class ItemGatewayControllerTest {
                 .andExpect(jsonPath("$.comments[0].text").value("Great!"));
     }
 
+    @Test
+    void getItemById_InvalidCommentsPage_ReturnsBadRequest() throws Exception {
+        mvc.perform(get("/items/{itemId}", 1L)
+                        .header("X-Sharer-User-Id", 100L)
+                        .param("size", "101"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemClient);
+    }
+
     @Test
     void getItemsByUser_ReturnsListOfItems() throws Exception {
         when(itemClient.getItemsByUser(eq(100L))).thenReturn(List.of(itemWithComments));
@@ -146,4 +156,15 @@ class ItemGatewayControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.text").value("Great!"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAvailability_EmptyWindow_ReturnsBadRequest() throws Exception {
+        mvc.perform(get("/items/1/availability")
+                        .header("X-Sharer-User-Id", 100L)
+                        .param("from", "2030-01-02T10:00:00")
+                        .param("to", "2030-01-02T10:00:00"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemClient);
+    }
+}
@@ -0,0 +1,97 @@
+package ru.practicum.shareit.gateway.proxy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvalidationListenerTest {
+
+    private final Sinks.Many<DataBuffer> stream = Sinks.many().unicast().onBackpressureBuffer();
+    private final AtomicInteger connections = new AtomicInteger();
+    private ResponseCache cache;
+    private InvalidationListener listener;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ResponseCache(true, DataSize.ofMegabytes(1), Duration.ofMinutes(1), new SimpleMeterRegistry());
+        WebClient client = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_EVENT_STREAM_VALUE)
+                        // Переподключения получают поток без событий
+                        .body(connections.getAndIncrement() == 0 ? stream.asFlux() : Flux.never())
+                        .build()))
+                .build();
+        listener = new InvalidationListener(client, cache, Duration.ofSeconds(45));
+        listener.subscribe();
+    }
+
+    @AfterEach
+    void tearDown() {
+        listener.close();
+    }
+
+    @Test
+    void invalidateEventDropsEntriesOfItsPath() {
+        send("event:hello\ndata:connected\n\n");
+        await(this::live);
+
+        ResponseCache.Key changed = new ResponseCache.Key("/items/1", null, "1");
+        ResponseCache.Key untouched = new ResponseCache.Key("/items/2", null, "1");
+        cache.put(changed, response(), cache.generation());
+        cache.put(untouched, response(), cache.generation());
+
+        send("event:invalidate\ndata:/items/1\n\n");
+
+        await(() -> cache.get(changed) == null);
+        assertNotNull(cache.get(untouched));
+    }
+
+    @Test
+    void lostStreamStopsServingEntriesWithoutRevalidation() {
+        send("event:hello\ndata:connected\n\n");
+        await(this::live);
+
+        stream.tryEmitComplete();
+
+        await(() -> !live());
+    }
+
+    private boolean live() {
+        return cache.isFresh(response(), System.nanoTime());
+    }
+
+    private void send(String event) {
+        stream.tryEmitNext(DefaultDataBufferFactory.sharedInstance.wrap(event.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static CachedResponse response() {
+        return new CachedResponse("{}".getBytes(), MediaType.APPLICATION_JSON, "\"v1\"", System.nanoTime());
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met within 5s");
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.gateway.proxy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheTest {
+
+    private ResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ResponseCache(true, DataSize.ofMegabytes(1), Duration.ofMinutes(1), new SimpleMeterRegistry());
+        cache.connected();
+    }
+
+    @Test
+    void invalidationDropsOnlyEntriesOfItsPath() {
+        ResponseCache.Key owner = new ResponseCache.Key("/items/1", null, "1");
+        ResponseCache.Key booker = new ResponseCache.Key("/items/1", null, "2");
+        ResponseCache.Key other = new ResponseCache.Key("/items/2", null, "1");
+        put(owner);
+        put(booker);
+        put(other);
+
+        cache.invalidate("/items/1");
+
+        assertNull(cache.get(owner));
+        assertNull(cache.get(booker));
+        assertNotNull(cache.get(other));
+    }
+
+    @Test
+    void pathCanBeCachedAgainAfterInvalidation() {
+        ResponseCache.Key key = new ResponseCache.Key("/requests/1", null, null);
+        put(key);
+        cache.invalidate("/requests/1");
+
+        put(key);
+        assertNotNull(cache.get(key));
+
+        cache.invalidate("/requests/1");
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    void responseSeenBeforeInvalidationIsNotStored() {
+        ResponseCache.Key key = new ResponseCache.Key("/items/1", null, "1");
+        long generation = cache.generation();
+
+        cache.invalidate("/items/2");
+        cache.put(key, response(), generation);
+
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    void reconnectDropsAllEntries() {
+        ResponseCache.Key key = new ResponseCache.Key("/items/1", null, "1");
+        put(key);
+
+        cache.disconnected();
+        cache.connected();
+
+        assertNull(cache.get(key));
+    }
+
+    private void put(ResponseCache.Key key) {
+        cache.put(key, response(), cache.generation());
+    }
+
+    private static CachedResponse response() {
+        return new CachedResponse("{}".getBytes(), MediaType.APPLICATION_JSON, "\"v1\"", System.nanoTime());
+    }
+}
@@ -0,0 +1,132 @@
+package ru.practicum.shareit.gateway.proxy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerReadProxyTest {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final List<ClientRequest> requests = new CopyOnWriteArrayList<>();
+    private Function<ClientRequest, ClientResponse> server;
+    private ResponseCache cache;
+    private ServerReadProxy proxy;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ResponseCache(true, DataSize.ofMegabytes(1), Duration.ofMinutes(1), new SimpleMeterRegistry());
+        WebClient client = WebClient.builder()
+                .exchangeFunction(request -> {
+                    requests.add(request);
+                    return Mono.just(server.apply(request));
+                })
+                .build();
+        proxy = new ServerReadProxy(client, cache, "http://server", true);
+        cache.connected();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void itemCardsAreCachedPerUser() {
+        server = request -> ok("user-" + request.headers().getFirst(USER_HEADER),
+                "\"v" + request.headers().getFirst(USER_HEADER) + "\"");
+
+        assertEquals("user-1", body(get("/items/1", "1", null)));
+        assertEquals("user-2", body(get("/items/1", "2", null)));
+        assertEquals("user-1", body(get("/items/1", "1", null)));
+
+        assertEquals(2, requests.size());
+    }
+
+    @Test
+    void invalidationEventDropsCachedCard() {
+        server = request -> ok("card", "\"v1\"");
+        get("/items/1", "1", null);
+
+        cache.invalidate("/items/1");
+        get("/items/1", "1", null);
+
+        assertEquals(2, requests.size());
+    }
+
+    @Test
+    void responseFetchedBeforeInvalidationIsNotStored() {
+        server = request -> {
+            cache.invalidate("/items/1");
+            return ok("card", "\"v1\"");
+        };
+
+        assertEquals("card", body(get("/items/1", "1", null)));
+        get("/items/1", "1", null);
+
+        assertEquals(2, requests.size());
+    }
+
+    @Test
+    void cardIsRevalidatedWhileInvalidationStreamIsDown() {
+        server = request -> ok("card", "\"v1\"");
+        get("/items/1", "1", null);
+
+        cache.disconnected();
+        server = request -> ClientResponse.create(HttpStatus.NOT_MODIFIED).header(HttpHeaders.ETAG, "\"v1\"").build();
+
+        ResponseEntity<byte[]> revalidated = get("/items/1", "1", null);
+        assertEquals(HttpStatus.OK, revalidated.getStatusCode());
+        assertEquals("card", body(revalidated));
+        assertEquals("\"v1\"", requests.getLast().headers().getFirst(HttpHeaders.IF_NONE_MATCH));
+
+        ResponseEntity<byte[]> notModified = get("/items/1", "1", "\"v1\"");
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        assertEquals(3, requests.size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private ResponseEntity<byte[]> get(String path, String userId, String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.addHeader(USER_HEADER, userId);
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        return (ResponseEntity<byte[]>) ((Mono<?>) proxy.getCached(true, () -> fail("Feign must not be called"))).block();
+    }
+
+    private static ClientResponse ok(String body, String etag) {
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header(HttpHeaders.ETAG, etag)
+                .body(body)
+                .build();
+    }
+
+    private static String body(ResponseEntity<byte[]> response) {
+        return new String(response.getBody(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.loadtest;
+
+import ru.practicum.shareit.benchmarks.DatasetGenerator;
+import ru.practicum.shareit.benchmarks.ZipfSampler;
+
+import java.util.Random;
+
+/**
+ * Выбирает id для запросов с тем же перекосом, что и {@link DatasetGenerator}:
+ * владельцы с малыми id, арендаторы с большими, популярные вещи с малыми.
+ * Не потокобезопасен, используется только из потока расписания.
+ */
+class IdSampler {
+
+    private static final String[] STATES = {"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"};
+
+    private final Random random;
+    private final ZipfSampler userRanks;
+    private final ZipfSampler itemRanks;
+    private final LoadTestOptions options;
+
+    IdSampler(LoadTestOptions options) {
+        this.options = options;
+        this.random = new Random(options.seed());
+        this.userRanks = new ZipfSampler(options.users(), options.skew(), random);
+        this.itemRanks = new ZipfSampler(options.items(), options.skew(), random);
+    }
+
+    long owner() {
+        return userRanks.next();
+    }
+
+    long booker() {
+        return options.users() - userRanks.next() + 1;
+    }
+
+    long user() {
+        return random.nextInt(options.users()) + 1;
+    }
+
+    long item() {
+        return itemRanks.next();
+    }
+
+    long booking() {
+        return random.nextInt(options.bookings()) + 1;
+    }
+
+    long request() {
+        return random.nextInt(Math.max(options.requests(), 1)) + 1;
+    }
+
+    String state() {
+        return STATES[random.nextInt(STATES.length)];
+    }
+
+    String word() {
+        return DatasetGenerator.WORDS.get(random.nextInt(DatasetGenerator.WORDS.size()));
+    }
+
+    double nextDouble() {
+        return random.nextDouble();
+    }
+}
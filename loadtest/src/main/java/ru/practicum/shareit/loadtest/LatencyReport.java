@@ -0,0 +1,74 @@
+package ru.practicum.shareit.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HDR-гистограммы задержек по эндпоинтам в микросекундах. Ошибкой считается
+ * ответ не из 2xx или сбой соединения; их задержка тоже попадает в гистограмму.
+ */
+class LatencyReport {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    void record(String endpoint, long latencyNanos, boolean success) {
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, name -> new Endpoint());
+        stats.latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_LATENCY_MICROS));
+        if (!success) {
+            stats.errors.increment();
+        }
+    }
+
+    void print(PrintStream out, Duration elapsed) {
+        double seconds = elapsed.toNanos() / 1e9;
+
+        out.printf("%-28s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        new TreeMap<>(endpoints).forEach((name, stats) -> {
+            Histogram latency = stats.latency;
+            out.printf("%-28s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    name,
+                    latency.getTotalCount(),
+                    stats.errors.sum(),
+                    latency.getTotalCount() / seconds,
+                    millis(latency.getValueAtPercentile(50)),
+                    millis(latency.getValueAtPercentile(90)),
+                    millis(latency.getValueAtPercentile(99)),
+                    millis(latency.getValueAtPercentile(99.9)),
+                    millis(latency.getMaxValue()));
+        });
+    }
+
+    void write(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            String file = entry.getKey().replaceAll("[^\\w]+", "_").replaceAll("^_|_$", "") + ".hgrm";
+            try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve(file)))) {
+                entry.getValue().latency.outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / MICROS_PER_MILLI;
+    }
+
+    private static class Endpoint {
+        private final Histogram latency = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Параметры прогона в виде --ключ=значение. Без --target поднимаются локальные
+ * server на H2 и gateway, а размеры и перекос данных задают и заполнение базы,
+ * и выборку id в запросах.
+ */
+record LoadTestOptions(
+        String target,
+        double rate,
+        Duration duration,
+        Duration warmup,
+        String mix,
+        Path postman,
+        int users,
+        int requests,
+        int items,
+        int bookings,
+        int comments,
+        double skew,
+        long seed,
+        Path reportDir) {
+
+    static final String DEFAULT_MIX = "search:35,bookings:25,owner:25,requests:15";
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value, got " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        return new LoadTestOptions(
+                values.get("target"),
+                Double.parseDouble(values.getOrDefault("rate", "200")),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration", "60"))),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup", "10"))),
+                values.getOrDefault("mix", DEFAULT_MIX),
+                values.containsKey("postman") ? Path.of(values.get("postman")) : null,
+                Integer.parseInt(values.getOrDefault("users", "1000")),
+                Integer.parseInt(values.getOrDefault("requests", "200")),
+                Integer.parseInt(values.getOrDefault("items", "5000")),
+                Integer.parseInt(values.getOrDefault("bookings", "50000")),
+                Integer.parseInt(values.getOrDefault("comments", "20000")),
+                Double.parseDouble(values.getOrDefault("skew", "1.1")),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                Path.of(values.getOrDefault("report-dir", "target/loadtest")));
+    }
+}
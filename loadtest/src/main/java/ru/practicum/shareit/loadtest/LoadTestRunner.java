@@ -0,0 +1,42 @@
+package ru.practicum.shareit.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * Сквозной нагрузочный прогон через gateway: прогрев, затем замер с выводом
+ * перцентилей по эндпоинтам и сохранением гистограмм в .hgrm.
+ */
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        RequestMix mix = options.postman() != null
+                ? RequestMix.fromPostman(options.postman())
+                : RequestMix.parse(options.mix());
+
+        LocalShareIt local = options.target() == null ? new LocalShareIt(options) : null;
+        try {
+            URI gateway = local != null ? local.gatewayUrl() : URI.create(options.target());
+            OpenLoopDriver driver = new OpenLoopDriver(gateway, mix, new IdSampler(options), options.rate());
+
+            System.out.printf("Driving %s at %.0f req/s, mix: %s%n", gateway, options.rate(),
+                    mix.shapes().stream().map(shape -> shape.name() + "=" + shape.weight()).toList());
+
+            if (!options.warmup().isZero()) {
+                driver.run(options.warmup(), new LatencyReport());
+            }
+
+            LatencyReport report = new LatencyReport();
+            Duration elapsed = driver.run(options.duration(), report);
+
+            report.print(System.out, elapsed);
+            report.write(options.reportDir());
+        } finally {
+            if (local != null) {
+                local.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.loadtest;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.benchmarks.DatasetGenerator;
+import ru.practicum.shareit.gateway.ShareItGateway;
+import ru.practicum.shareit.server.ShareItServer;
+
+import java.net.URI;
+
+/**
+ * Server на H2 в памяти и gateway перед ним в одном процессе на случайных портах.
+ * Между ними настоящий HTTP через Feign, как в docker-compose.
+ */
+class LocalShareIt implements AutoCloseable {
+
+    private final ConfigurableApplicationContext server;
+    private final ConfigurableApplicationContext gateway;
+
+    LocalShareIt(LoadTestOptions options) {
+        server = new SpringApplicationBuilder(ShareItServer.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:shareit-load;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driverClassName=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--logging.level.root=WARN");
+
+        new DatasetGenerator(server.getBean(JdbcTemplate.class), options.seed())
+                .generate(options.users(), options.requests(), options.items(), options.bookings(),
+                        options.comments(), options.skew());
+
+        gateway = new SpringApplicationBuilder(ShareItGateway.class)
+                .run("--server.port=0",
+                        "--shareit-server.url=" + url(server),
+                        "--logbook.filter.enabled=false",
+                        "--logging.level.root=WARN");
+    }
+
+    URI gatewayUrl() {
+        return URI.create(url(gateway));
+    }
+
+    @Override
+    public void close() {
+        gateway.close();
+        server.close();
+    }
+
+    private static String url(ConfigurableApplicationContext context) {
+        return "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Открытая модель нагрузки: запросы уходят по расписанию с пуассоновскими
+ * интервалами независимо от того, ответил ли gateway на предыдущие. Задержка
+ * считается от запланированного момента отправки, поэтому очередь на стороне
+ * клиента при перегрузке тоже попадает в перцентили.
+ */
+class OpenLoopDriver {
+
+    private final URI base;
+    private final RequestMix mix;
+    private final IdSampler ids;
+    private final double rate;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final AtomicLong inFlight = new AtomicLong();
+
+    OpenLoopDriver(URI base, RequestMix mix, IdSampler ids, double rate) {
+        this.base = base;
+        this.mix = mix;
+        this.ids = ids;
+        this.rate = rate;
+    }
+
+    Duration run(Duration duration, LatencyReport report) throws InterruptedException {
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+
+        long scheduled = start;
+        while (scheduled < end) {
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            send(mix.next(ids), scheduled, report);
+            scheduled += (long) (-Math.log(1 - ids.nextDouble()) * meanIntervalNanos);
+        }
+
+        long deadline = System.nanoTime() + RequestShape.TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+
+    private void send(RequestShape shape, long scheduled, LatencyReport report) {
+        HttpRequest request = shape.build(base, ids);
+
+        inFlight.incrementAndGet();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    boolean success = error == null && response.statusCode() / 100 == 2;
+                    report.record(shape.name(), System.nanoTime() - scheduled, success);
+                    inFlight.decrementAndGet();
+                });
+    }
+}
@@ -0,0 +1,127 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Взвешенная смесь форм запросов. Задается строкой вида {@code search:35,owner:25}
+ * или берется из GET-запросов коллекции Postman, где вес эндпоинта равен числу
+ * его вхождений в коллекцию.
+ */
+class RequestMix {
+
+    private static final Pattern HOST = Pattern.compile("^(https?://)?(\\{\\{baseUrl}}|[^/{]+)");
+    private static final Pattern VARIABLE = Pattern.compile("\\{\\{(\\w+)}}");
+
+    private final List<RequestShape> shapes;
+    private final int[] cumulative;
+
+    RequestMix(List<RequestShape> shapes) {
+        if (shapes.isEmpty()) {
+            throw new IllegalArgumentException("Request mix is empty");
+        }
+        this.shapes = List.copyOf(shapes);
+        this.cumulative = new int[shapes.size()];
+
+        int sum = 0;
+        for (int i = 0; i < shapes.size(); i++) {
+            sum += shapes.get(i).weight();
+            cumulative[i] = sum;
+        }
+    }
+
+    static RequestMix parse(String spec) {
+        List<RequestShape> shapes = new ArrayList<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split(":");
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1]) : 1;
+            shapes.add(RequestShape.builtIn(parts[0], weight));
+        }
+        return new RequestMix(shapes);
+    }
+
+    static RequestMix fromPostman(Path collection) throws IOException {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        Map<String, String> userHeaders = new LinkedHashMap<>();
+        collectGets(new ObjectMapper().readTree(collection.toFile()), weights, userHeaders);
+
+        List<RequestShape> shapes = new ArrayList<>();
+        weights.forEach((path, weight) -> shapes.add(new RequestShape("GET " + path, weight,
+                ids -> new RequestShape.Call(substitute(path, ids), userId(userHeaders.get(path), ids)))));
+        return new RequestMix(shapes);
+    }
+
+    RequestShape next(IdSampler ids) {
+        int roll = (int) (ids.nextDouble() * cumulative[cumulative.length - 1]);
+        for (int i = 0; i < cumulative.length; i++) {
+            if (roll < cumulative[i]) {
+                return shapes.get(i);
+            }
+        }
+        return shapes.getLast();
+    }
+
+    List<RequestShape> shapes() {
+        return shapes;
+    }
+
+    private static void collectGets(JsonNode node, Map<String, Integer> weights, Map<String, String> userHeaders) {
+        for (JsonNode item : node.path("item")) {
+            if (item.has("item")) {
+                collectGets(item, weights, userHeaders);
+                continue;
+            }
+
+            JsonNode request = item.path("request");
+            if (!"GET".equals(request.path("method").asText())) {
+                continue;
+            }
+
+            JsonNode url = request.path("url");
+            String raw = url.isTextual() ? url.asText() : url.path("raw").asText();
+            String path = HOST.matcher(raw).replaceFirst("");
+            weights.merge(path, 1, Integer::sum);
+
+            for (JsonNode header : request.path("header")) {
+                if (RequestShape.USER_HEADER.equalsIgnoreCase(header.path("key").asText())) {
+                    userHeaders.put(path, header.path("value").asText());
+                }
+            }
+        }
+    }
+
+    private static String substitute(String template, IdSampler ids) {
+        Matcher matcher = VARIABLE.matcher(template);
+        StringBuilder result = new StringBuilder();
+        while (matcher.find()) {
+            matcher.appendReplacement(result, String.valueOf(variable(matcher.group(1), ids)));
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    }
+
+    private static long userId(String header, IdSampler ids) {
+        if (header == null || header.isBlank()) {
+            return ids.user();
+        }
+        return Long.parseLong(substitute(header, ids));
+    }
+
+    private static long variable(String name, IdSampler ids) {
+        return switch (name) {
+            case "itemId" -> ids.item();
+            case "bookingId" -> ids.booking();
+            case "requestId" -> ids.request();
+            default -> ids.user();
+        };
+    }
+}
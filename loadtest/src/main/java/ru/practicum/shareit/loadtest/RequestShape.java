@@ -0,0 +1,53 @@
+package ru.practicum.shareit.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Форма запроса к gateway: имя эндпоинта для отчета, доля в смеси и способ
+ * собрать конкретный запрос с выбранными id.
+ */
+record RequestShape(String name, int weight, Function<IdSampler, Call> call) {
+
+    static final String USER_HEADER = "X-Sharer-User-Id";
+    static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    HttpRequest build(URI base, IdSampler ids) {
+        Call next = call.apply(ids);
+        return HttpRequest.newBuilder(base.resolve(next.pathAndQuery()))
+                .header(USER_HEADER, String.valueOf(next.userId()))
+                .header("Accept", "application/json")
+                .timeout(TIMEOUT)
+                .GET()
+                .build();
+    }
+
+    static RequestShape builtIn(String name, int weight) {
+        return switch (name) {
+            case "search" -> new RequestShape("GET /items/search", weight,
+                    ids -> new Call("/items/search?text=" + encode(ids.word()), ids.user()));
+            case "bookings" -> new RequestShape("GET /bookings", weight,
+                    ids -> new Call("/bookings?state=" + ids.state(), ids.booker()));
+            case "owner" -> new RequestShape("GET /bookings/owner", weight,
+                    ids -> new Call("/bookings/owner?state=" + ids.state(), ids.owner()));
+            case "requests" -> new RequestShape("GET /requests/all", weight,
+                    ids -> new Call("/requests/all", ids.user()));
+            case "items" -> new RequestShape("GET /items", weight,
+                    ids -> new Call("/items", ids.owner()));
+            case "item" -> new RequestShape("GET /items/{itemId}", weight,
+                    ids -> new Call("/items/" + ids.item(), ids.user()));
+            default -> throw new IllegalArgumentException("Unknown endpoint in mix: " + name);
+        };
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    record Call(String pathAndQuery, long userId) {
+    }
+}
@@ -1,13 +1,18 @@
 package ru.practicum.shareit.server.booking.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.server.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.server.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.server.booking.service.BookingService;
+import ru.practicum.shareit.server.common.Etags;
 
-import java.util.Collection;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @RestController
 @RequestMapping(path = "/bookings")
@@ -43,22 +48,41 @@ public class BookingController {
     }
 
     @GetMapping
-    Collection<BookingResponseDto> getAllBookingAtState(
+    ResponseEntity<List<BookingResponseDto>> getAllBookingAtState(
             @RequestHeader("X-Sharer-User-Id")
             Long userId,
             @RequestParam(defaultValue = "ALL")
-            String state
+            String state,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime cursorStart,
+            @RequestParam(required = false)
+            Long cursorId,
+            @RequestParam(defaultValue = "20")
+            Integer size,
+            HttpServletRequest request
     ) {
-        return service.getAllBookingAtState(userId, state);
+        return Etags.ifNoneMatch(request, service.getAllBookingAtStateEtag(userId, state, cursorStart, cursorId, size),
+                () -> service.getAllBookingAtState(userId, state, cursorStart, cursorId, size));
     }
 
     @GetMapping("/owner")
-    Collection<BookingResponseDto> getAllOwnerBookingAtState(
+    ResponseEntity<List<BookingResponseDto>> getAllOwnerBookingAtState(
             @RequestHeader("X-Sharer-User-Id")
             Long userId,
             @RequestParam(defaultValue = "ALL")
-            String state
+            String state,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime cursorStart,
+            @RequestParam(required = false)
+            Long cursorId,
+            @RequestParam(defaultValue = "20")
+            Integer size,
+            HttpServletRequest request
     ) {
-        return service.getAllOwnerBookingAtState(userId, state);
+        return Etags.ifNoneMatch(request,
+                service.getAllOwnerBookingAtStateEtag(userId, state, cursorStart, cursorId, size),
+                () -> service.getAllOwnerBookingAtState(userId, state, cursorStart, cursorId, size));
     }
 }
\ No newline at end of file
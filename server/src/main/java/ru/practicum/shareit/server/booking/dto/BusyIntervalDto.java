@@ -0,0 +1,16 @@
+package ru.practicum.shareit.server.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BusyIntervalDto {
+
+    private LocalDateTime start;
+    private LocalDateTime end;
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.server.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class ItemBookingDatesDto {
+
+    private Long itemId;
+    private LocalDateTime lastBooking;
+    private LocalDateTime nextBooking;
+}
@@ -9,10 +9,19 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "bookings")
+@NamedEntityGraph(name = Booking.WITH_ITEM_AND_BOOKER, attributeNodes = {
+        @NamedAttributeNode("item"),
+        @NamedAttributeNode("booker")
+})
 @Data
 public class Booking {
+
+    // Вещь и арендатор нужны в каждом BookingResponseDto: листинги читают их тем же запросом
+    public static final String WITH_ITEM_AND_BOOKER = "Booking.withItemAndBooker";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_seq")
+    @SequenceGenerator(name = "booking_seq", sequenceName = "booking_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "start_date", nullable = false)
@@ -33,4 +42,22 @@ public class Booking {
     @Column(name = "status", nullable = false)
     private BookingStatus status;
 
+    /**
+     * Пишется только при вставке и планировщиком фаз, чтобы сохранение
+     * загруженного ранее бронирования не откатывало переход.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "phase", nullable = false, updatable = false)
+    private BookingPhase phase;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @PrePersist
+    void assignPhase() {
+        if (phase == null) {
+            phase = BookingPhase.at(start, end, LocalDateTime.now());
+        }
+    }
 }
\ No newline at end of file
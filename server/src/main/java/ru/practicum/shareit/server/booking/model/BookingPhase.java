@@ -0,0 +1,16 @@
+package ru.practicum.shareit.server.booking.model;
+
+import java.time.LocalDateTime;
+
+public enum BookingPhase {
+    FUTURE,
+    CURRENT,
+    PAST;
+
+    public static BookingPhase at(LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+        if (end.isBefore(now)) {
+            return PAST;
+        }
+        return start.isAfter(now) ? FUTURE : CURRENT;
+    }
+}
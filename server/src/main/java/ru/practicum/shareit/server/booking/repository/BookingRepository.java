@@ -1,75 +1,203 @@
 package ru.practicum.shareit.server.booking.repository;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.server.booking.dto.BusyIntervalDto;
+import ru.practicum.shareit.server.booking.dto.ItemBookingDatesDto;
 import ru.practicum.shareit.server.booking.model.Booking;
 import ru.practicum.shareit.server.booking.model.BookingStatus;
-import ru.practicum.shareit.server.user.model.User;
+import ru.practicum.shareit.server.common.VersionStamp;
 
 import java.time.LocalDateTime;
-import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    Collection<Booking> findBookingsByBookerAndStatusOrderByStartDesc(User booker, BookingStatus status);
-
-    Collection<Booking> findBookingsByBookerOrderByStartDesc(User booker);
-
+    String AFTER_CURSOR = "AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId)) ";
+    String ORDER_BY_START = "ORDER BY b.start DESC, b.id DESC";
+    // Начавшиеся и закончившиеся по фазе, как в самих листингах, версии вещи и арендатора входят в BookingResponseDto
+    String LISTING_STAMP = "SELECT new ru.practicum.shareit.server.common.VersionStamp(COUNT(b), MAX(b.id), " +
+                           "SUM(b.version + b.item.version + b.booker.version), " +
+                           "SUM(CASE WHEN b.phase <> 'FUTURE' THEN 1 ELSE 0 END), " +
+                           "SUM(CASE WHEN b.phase = 'PAST' THEN 1 ELSE 0 END)) " +
+                           "FROM Booking b ";
+    // Границы по :now, как в датах lastBooking/nextBooking у вещей
+    String DATES_STAMP = "SELECT new ru.practicum.shareit.server.common.VersionStamp(COUNT(b), MAX(b.id), SUM(b.version), " +
+                         "SUM(CASE WHEN b.start <= :now THEN 1 ELSE 0 END), " +
+                         "SUM(CASE WHEN b.end < :now THEN 1 ELSE 0 END)) " +
+                         "FROM Booking b ";
+
+    @Override
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Optional<Booking> findById(Long id);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     @Query("SELECT b FROM Booking b " +
-           "WHERE b.booker = :user AND b.status = 'APPROVED' " +
-           "AND b.start <= CURRENT_TIMESTAMP AND b.end >= CURRENT_TIMESTAMP " +
-           "ORDER BY b.start DESC")
-    Collection<Booking> findCurrentBookings(@Param("user") User user);
-
+           "WHERE b.booker.id = :bookerId AND b.status = :status " +
+           AFTER_CURSOR +
+           ORDER_BY_START)
+    List<Booking> findBookingsByBookerAndStatus(@Param("bookerId") Long bookerId,
+                                                @Param("status") BookingStatus status,
+                                                @Param("cursorStart") LocalDateTime cursorStart,
+                                                @Param("cursorId") Long cursorId,
+                                                Limit limit);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     @Query("SELECT b FROM Booking b " +
-           "WHERE b.booker = :user AND b.status = 'APPROVED' " +
-           "AND b.end < CURRENT_TIMESTAMP " +
-           "ORDER BY b.start DESC")
-    Collection<Booking> findPastBookings(@Param("user") User user);
-
+           "WHERE b.booker.id = :bookerId " +
+           AFTER_CURSOR +
+           ORDER_BY_START)
+    List<Booking> findBookingsByBooker(@Param("bookerId") Long bookerId,
+                                       @Param("cursorStart") LocalDateTime cursorStart,
+                                       @Param("cursorId") Long cursorId,
+                                       Limit limit);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     @Query("SELECT b FROM Booking b " +
-           "WHERE b.booker = :user AND b.status = 'APPROVED' " +
-           "AND b.start > CURRENT_TIMESTAMP " +
-           "ORDER BY b.start DESC")
-    Collection<Booking> findFutureBookings(@Param("user") User user);
-
+           "WHERE b.booker.id = :bookerId AND b.status = 'APPROVED' " +
+           "AND b.phase = 'CURRENT' " +
+           AFTER_CURSOR +
+           ORDER_BY_START)
+    List<Booking> findCurrentBookings(@Param("bookerId") Long bookerId,
+                                      @Param("cursorStart") LocalDateTime cursorStart,
+                                      @Param("cursorId") Long cursorId,
+                                      Limit limit);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("SELECT b FROM Booking b " +
+           "WHERE b.booker.id = :bookerId AND b.status = 'APPROVED' " +
+           "AND b.phase = 'PAST' " +
+           AFTER_CURSOR +
+           ORDER_BY_START)
+    List<Booking> findPastBookings(@Param("bookerId") Long bookerId,
+                                   @Param("cursorStart") LocalDateTime cursorStart,
+                                   @Param("cursorId") Long cursorId,
+                                   Limit limit);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("SELECT b FROM Booking b " +
+           "WHERE b.booker.id = :bookerId AND b.status = 'APPROVED' " +
+           "AND b.phase = 'FUTURE' " +
+           AFTER_CURSOR +
+           ORDER_BY_START)
+    List<Booking> findFutureBookings(@Param("bookerId") Long bookerId,
+                                     @Param("cursorStart") LocalDateTime cursorStart,
+                                     @Param("cursorId") Long cursorId,
+                                     Limit limit);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     @Query("SELECT b FROM Booking b " +
            "WHERE b.item.owner = :ownerId AND b.status = 'APPROVED' " +
-           "AND b.start <= CURRENT_TIMESTAMP AND b.end >= CURRENT_TIMESTAMP " +
-           "ORDER BY b.start DESC")
-    Collection<Booking> findCurrentBookingsByOwner(@Param("ownerId") Long ownerId);
-
+           "AND b.phase = 'CURRENT' " +
+           AFTER_CURSOR +
+           ORDER_BY_START)
+    List<Booking> findCurrentBookingsByOwner(@Param("ownerId") Long ownerId,
+                                             @Param("cursorStart") LocalDateTime cursorStart,
+                                             @Param("cursorId") Long cursorId,
+                                             Limit limit);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     @Query("SELECT b FROM Booking b " +
            "WHERE b.item.owner = :ownerId AND b.status = 'APPROVED' " +
-           "AND b.end < CURRENT_TIMESTAMP " +
-           "ORDER BY b.start DESC")
-    Collection<Booking> findPastBookingsByOwner(@Param("ownerId") Long ownerId);
-
+           "AND b.phase = 'PAST' " +
+           AFTER_CURSOR +
+           ORDER_BY_START)
+    List<Booking> findPastBookingsByOwner(@Param("ownerId") Long ownerId,
+                                          @Param("cursorStart") LocalDateTime cursorStart,
+                                          @Param("cursorId") Long cursorId,
+                                          Limit limit);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     @Query("SELECT b FROM Booking b " +
            "WHERE b.item.owner = :ownerId AND b.status = 'APPROVED' " +
-           "AND b.start > CURRENT_TIMESTAMP " +
-           "ORDER BY b.start DESC")
-    Collection<Booking> findFutureBookingsByOwner(@Param("ownerId") Long ownerId);
-
+           "AND b.phase = 'FUTURE' " +
+           AFTER_CURSOR +
+           ORDER_BY_START)
+    List<Booking> findFutureBookingsByOwner(@Param("ownerId") Long ownerId,
+                                            @Param("cursorStart") LocalDateTime cursorStart,
+                                            @Param("cursorId") Long cursorId,
+                                            Limit limit);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     @Query("SELECT b FROM Booking b " +
            "WHERE b.item.owner = :ownerId AND b.status = :status " +
-           "ORDER BY b.start DESC")
-    Collection<Booking> findBookingsByOwnerAndStatus(@Param("ownerId") Long ownerId, @Param("status") BookingStatus status);
-
+           AFTER_CURSOR +
+           ORDER_BY_START)
+    List<Booking> findBookingsByOwnerAndStatus(@Param("ownerId") Long ownerId,
+                                               @Param("status") BookingStatus status,
+                                               @Param("cursorStart") LocalDateTime cursorStart,
+                                               @Param("cursorId") Long cursorId,
+                                               Limit limit);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     @Query("SELECT b FROM Booking b " +
            "WHERE b.item.owner = :ownerId " +
-           "ORDER BY b.start DESC")
-    Collection<Booking> findAllBookingsByOwner(@Param("ownerId") Long ownerId);
+           AFTER_CURSOR +
+           ORDER_BY_START)
+    List<Booking> findAllBookingsByOwner(@Param("ownerId") Long ownerId,
+                                         @Param("cursorStart") LocalDateTime cursorStart,
+                                         @Param("cursorId") Long cursorId,
+                                         Limit limit);
+
+    @Query(LISTING_STAMP + "WHERE b.booker.id = :bookerId")
+    VersionStamp getBookerStamp(@Param("bookerId") Long bookerId);
+
+    @Query(LISTING_STAMP + "WHERE b.item.owner = :ownerId")
+    VersionStamp getOwnerStamp(@Param("ownerId") Long ownerId);
+
+    @Query(DATES_STAMP + "WHERE b.item.owner = :ownerId")
+    VersionStamp getOwnerItemsDatesStamp(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now);
+
+    @Query(DATES_STAMP + "WHERE b.item.id = :itemId")
+    VersionStamp getItemDatesStamp(@Param("itemId") Long itemId, @Param("now") LocalDateTime now);
+
+    // Сначала закончившиеся, затем начавшиеся: бронирование, пропущенное между запусками, сразу уходит в PAST
+    @Modifying
+    @Transactional
+    @Query("UPDATE Booking b SET b.phase = 'PAST' WHERE b.phase IN ('FUTURE', 'CURRENT') AND b.end < :now")
+    int markPast(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Booking b SET b.phase = 'CURRENT' WHERE b.phase = 'FUTURE' AND b.start <= :now AND b.end >= :now")
+    int markCurrent(@Param("now") LocalDateTime now);
+
+    boolean existsByBookerIdAndItemIdAndStatusAndEndBefore(Long bookerId,
+                                                           Long itemId,
+                                                           BookingStatus status,
+                                                           LocalDateTime now);
 
     Optional<Booking> findTopByItemIdAndStartAfterOrderByStartAsc(Long id, LocalDateTime now);
 
     Optional<Booking> findTopByItemIdAndEndBeforeOrderByEndDesc(Long id, LocalDateTime now);
 
-    @Query("SELECT b FROM Booking b WHERE b.id IN :itemIds AND b.status = 'APPROVED' ORDER BY b.start DESC")
-    List<Booking> findApprovedBookingsByItemIdsOrderByDesc(@Param("itemIds") List<Long> itemIds);
-}
\ No newline at end of file
+    // Полуинтервалы [start, end): диапазон по end_date из idx_bookings_item_end отсекает прошедшие бронирования
+    @Query("SELECT COUNT(b) > 0 FROM Booking b " +
+           "WHERE b.item.id = :itemId AND b.status IN ('WAITING', 'APPROVED') " +
+           "AND b.end > :start AND b.start < :end")
+    boolean existsOverlapping(@Param("itemId") Long itemId,
+                              @Param("start") LocalDateTime start,
+                              @Param("end") LocalDateTime end);
+
+    @Query("SELECT new ru.practicum.shareit.server.booking.dto.BusyIntervalDto(b.start, b.end) FROM Booking b " +
+           "WHERE b.item.id = :itemId AND b.status IN ('WAITING', 'APPROVED') AND b.end > :now " +
+           "ORDER BY b.start")
+    List<BusyIntervalDto> findBusyIntervals(@Param("itemId") Long itemId, @Param("now") LocalDateTime now);
+
+    @Query("SELECT new ru.practicum.shareit.server.booking.dto.ItemBookingDatesDto(b.item.id, " +
+           "MAX(CASE WHEN b.end < :now THEN b.end END), " +
+           "MIN(CASE WHEN b.start > :now THEN b.start END)) " +
+           "FROM Booking b " +
+           "WHERE b.item.id IN :itemIds AND b.status = 'APPROVED' " +
+           "GROUP BY b.item.id")
+    List<ItemBookingDatesDto> findApprovedBookingDatesByItemIds(@Param("itemIds") List<Long> itemIds,
+                                                                @Param("now") LocalDateTime now);
+}
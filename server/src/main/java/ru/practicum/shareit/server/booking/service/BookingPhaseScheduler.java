@@ -0,0 +1,34 @@
+package ru.practicum.shareit.server.booking.service;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.server.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Переводит бронирования между фазами FUTURE -> CURRENT -> PAST. Каждый запуск
+ * выбирает по индексам только строки, пересекшие границу с прошлого запуска,
+ * поэтому листинг может отставать от часов не больше чем на
+ * shareit.booking.phase-refresh. Запуски на нескольких экземплярах server
+ * безопасны: повторный перевод ничего не меняет.
+ */
+@Slf4j
+@Component
+@AllArgsConstructor
+public class BookingPhaseScheduler {
+
+    private final BookingRepository bookingRepository;
+
+    @Scheduled(fixedDelayString = "${shareit.booking.phase-refresh:1s}")
+    public void advancePhases() {
+        LocalDateTime now = LocalDateTime.now();
+        int ended = bookingRepository.markPast(now);
+        int started = bookingRepository.markCurrent(now);
+        if (ended + started > 0) {
+            log.debug("Booking phases advanced: {} started, {} ended", started, ended);
+        }
+    }
+}
@@ -3,7 +3,8 @@ package ru.practicum.shareit.server.booking.service;
 import ru.practicum.shareit.server.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.server.booking.dto.BookingResponseDto;
 
-import java.util.Collection;
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface BookingService {
 
@@ -13,7 +14,15 @@ public interface BookingService {
 
     BookingResponseDto getBookingById(Long bookingIdm, Long userId);
 
-    Collection<BookingResponseDto> getAllBookingAtState(Long userId, String state);
+    List<BookingResponseDto> getAllBookingAtState(Long userId, String state,
+                                                  LocalDateTime cursorStart, Long cursorId, Integer size);
 
-    Collection<BookingResponseDto> getAllOwnerBookingAtState(Long userId, String state);
+    String getAllBookingAtStateEtag(Long userId, String state,
+                                    LocalDateTime cursorStart, Long cursorId, Integer size);
+
+    List<BookingResponseDto> getAllOwnerBookingAtState(Long userId, String state,
+                                                       LocalDateTime cursorStart, Long cursorId, Integer size);
+
+    String getAllOwnerBookingAtStateEtag(Long userId, String state,
+                                         LocalDateTime cursorStart, Long cursorId, Integer size);
 }
\ No newline at end of file
@@ -1,7 +1,10 @@
 package ru.practicum.shareit.server.booking.service;
 
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.server.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.server.booking.dto.BookingMapper;
 import ru.practicum.shareit.server.booking.dto.BookingResponseDto;
@@ -9,6 +12,9 @@ import ru.practicum.shareit.server.booking.dto.BookingStatusDto;
 import ru.practicum.shareit.server.booking.model.Booking;
 import ru.practicum.shareit.server.booking.model.BookingStatus;
 import ru.practicum.shareit.server.booking.repository.BookingRepository;
+import ru.practicum.shareit.server.common.Etags;
+import ru.practicum.shareit.server.common.ExistenceChecker;
+import ru.practicum.shareit.server.events.ResourceChangedEvent;
 import ru.practicum.shareit.server.exception.ForbiddenException;
 import ru.practicum.shareit.server.exception.NotFoundException;
 import ru.practicum.shareit.server.exception.ValidationException;
@@ -19,17 +25,24 @@ import ru.practicum.shareit.server.user.dto.UserMapper;
 import ru.practicum.shareit.server.user.model.User;
 import ru.practicum.shareit.server.user.repository.UserRepository;
 
-import java.util.Collection;
-import java.util.stream.Collectors;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Service
 @AllArgsConstructor
 public class BookingServiceImpl implements BookingService {
 
     private static final BookingStatus FIRST_BOOKING_STATUS = BookingStatus.WAITING;
+    private static final LocalDateTime FIRST_PAGE_START = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final Long FIRST_PAGE_ID = Long.MAX_VALUE;
+    private static final int MAX_PAGE_SIZE = 100;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
+    private final ExistenceChecker existenceChecker;
+    private final ApplicationEventPublisher events;
+    private final ItemAvailability availability;
+    private final BusyCalendar calendar;
 
     @Override
     public BookingResponseDto createBooking(BookingCreateDto dto, Long bookerId) {
@@ -46,7 +59,11 @@ public class BookingServiceImpl implements BookingService {
         Booking newBooking = BookingMapper.toBooking(booker, item, dto, FIRST_BOOKING_STATUS);
 
 
-        return BookingMapper.toBookingResponseDto(bookingRepository.save(newBooking),
+        Booking savedBooking = availability.reserve(newBooking);
+        calendar.onBookingCreated(savedBooking);
+        events.publishEvent(ResourceChangedEvent.item(item.getId()));
+
+        return BookingMapper.toBookingResponseDto(savedBooking,
                 ItemMapper.toItemResponseDto(newBooking.getItem()),
                 UserMapper.toShortUserResponseDto(newBooking.getBooker()));
     }
@@ -55,10 +72,10 @@ public class BookingServiceImpl implements BookingService {
     @Override
     public BookingResponseDto updateBooking(Long bookingId, Long bookerId, Boolean approved) {
 
-        User booker = checkAndGetUser(bookerId);
+        checkUser(bookerId);
         Booking booking = checkAndGetBooking(bookingId);
 
-        if (!booking.getItem().getOwner().equals(booker.getId())) {
+        if (!booking.getItem().getOwner().equals(bookerId)) {
             throw new ForbiddenException("Only item owner can change booking approve");
         }
 
@@ -73,6 +90,10 @@ public class BookingServiceImpl implements BookingService {
         }
 
         bookingRepository.save(booking);
+        if (booking.getStatus().equals(BookingStatus.REJECTED)) {
+            calendar.onBookingReleased(booking.getItem().getId());
+        }
+        events.publishEvent(ResourceChangedEvent.item(booking.getItem().getId()));
 
         return BookingMapper.toBookingResponseDto(booking,
                 ItemMapper.toItemResponseDto(booking.getItem()),
@@ -80,14 +101,15 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public BookingResponseDto getBookingById(Long bookingId, Long userId) {
 
 
-        User user = checkAndGetUser(userId);
+        checkUser(userId);
         Booking booking = checkAndGetBooking(bookingId);
 
-        if (!(user.getId().equals(booking.getBooker().getId()) ||
-              user.getId().equals(booking.getItem().getOwner()))) {
+        if (!(userId.equals(booking.getBooker().getId()) ||
+              userId.equals(booking.getItem().getOwner()))) {
             throw new ForbiddenException("Only item owner or booker can get booking");
         }
 
@@ -97,50 +119,86 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public Collection<BookingResponseDto> getAllBookingAtState(Long userId, String state) {
+    @Transactional(readOnly = true)
+    public List<BookingResponseDto> getAllBookingAtState(Long userId, String state,
+                                                         LocalDateTime cursorStart, Long cursorId, Integer size) {
 
         BookingStatusDto stateDTO = getBookingStatusDto(state);
-        User booker = checkAndGetUser(userId);
-
-        Collection<Booking> bookings = switch (stateDTO) {
-            case ALL -> bookingRepository.findBookingsByBookerOrderByStartDesc(booker);
-            case CURRENT -> bookingRepository.findCurrentBookings(booker);
-            case PAST -> bookingRepository.findPastBookings(booker);
-            case FUTURE -> bookingRepository.findFutureBookings(booker);
-            default -> bookingRepository.findBookingsByBookerAndStatusOrderByStartDesc(
-                    booker, BookingStatus.valueOf(stateDTO.name()));
+        Limit limit = getLimit(size);
+        checkCursor(cursorStart, cursorId);
+        checkUser(userId);
+
+        LocalDateTime start = cursorStart == null ? FIRST_PAGE_START : cursorStart;
+        Long id = cursorId == null ? FIRST_PAGE_ID : cursorId;
+
+        List<Booking> bookings = switch (stateDTO) {
+            case ALL -> bookingRepository.findBookingsByBooker(userId, start, id, limit);
+            case CURRENT -> bookingRepository.findCurrentBookings(userId, start, id, limit);
+            case PAST -> bookingRepository.findPastBookings(userId, start, id, limit);
+            case FUTURE -> bookingRepository.findFutureBookings(userId, start, id, limit);
+            default -> bookingRepository.findBookingsByBookerAndStatus(
+                    userId, BookingStatus.valueOf(stateDTO.name()), start, id, limit);
         };
 
         return bookings.stream()
                 .map(booking -> BookingMapper.toBookingResponseDto(booking,
                         ItemMapper.toItemResponseDto(booking.getItem()),
                         UserMapper.toShortUserResponseDto(booking.getBooker())))
-                .collect(Collectors.toSet());
+                .toList();
 
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public String getAllBookingAtStateEtag(Long userId, String state,
+                                           LocalDateTime cursorStart, Long cursorId, Integer size) {
+        checkListing(userId, state, cursorStart, cursorId, size);
+        return Etags.strong(userId, state, cursorStart, cursorId, size, bookingRepository.getBookerStamp(userId));
+    }
+
 
     @Override
-    public Collection<BookingResponseDto> getAllOwnerBookingAtState(Long userId, String state) {
+    @Transactional(readOnly = true)
+    public List<BookingResponseDto> getAllOwnerBookingAtState(Long userId, String state,
+                                                              LocalDateTime cursorStart, Long cursorId, Integer size) {
         BookingStatusDto stateDTO = getBookingStatusDto(state);
-        User booker = checkAndGetUser(userId);
-
-        Collection<Booking> bookings = switch (stateDTO) {
-            case ALL -> bookingRepository.findAllBookingsByOwner(booker.getId());
-            case CURRENT -> bookingRepository.findCurrentBookingsByOwner(booker.getId());
-            case PAST -> bookingRepository.findPastBookingsByOwner(booker.getId());
-            case FUTURE -> bookingRepository.findFutureBookingsByOwner(booker.getId());
+        Limit limit = getLimit(size);
+        checkCursor(cursorStart, cursorId);
+        checkUser(userId);
+
+        LocalDateTime start = cursorStart == null ? FIRST_PAGE_START : cursorStart;
+        Long id = cursorId == null ? FIRST_PAGE_ID : cursorId;
+
+        List<Booking> bookings = switch (stateDTO) {
+            case ALL -> bookingRepository.findAllBookingsByOwner(userId, start, id, limit);
+            case CURRENT -> bookingRepository.findCurrentBookingsByOwner(userId, start, id, limit);
+            case PAST -> bookingRepository.findPastBookingsByOwner(userId, start, id, limit);
+            case FUTURE -> bookingRepository.findFutureBookingsByOwner(userId, start, id, limit);
             default -> bookingRepository.findBookingsByOwnerAndStatus(
-                    booker.getId(), BookingStatus.valueOf(stateDTO.name()));
+                    userId, BookingStatus.valueOf(stateDTO.name()), start, id, limit);
         };
 
         return bookings.stream()
                 .map(booking -> BookingMapper.toBookingResponseDto(booking,
                         ItemMapper.toItemResponseDto(booking.getItem()),
                         UserMapper.toShortUserResponseDto(booking.getBooker())))
-                .collect(Collectors.toSet());
+                .toList();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public String getAllOwnerBookingAtStateEtag(Long userId, String state,
+                                                LocalDateTime cursorStart, Long cursorId, Integer size) {
+        checkListing(userId, state, cursorStart, cursorId, size);
+        return Etags.strong(userId, state, cursorStart, cursorId, size, bookingRepository.getOwnerStamp(userId));
+    }
+
+
+    private void checkUser(Long userId) {
+        if (!existenceChecker.userExists(userId)) {
+            throw new ForbiddenException("User with id=" + userId + " not found");
+        }
+    }
 
     private User checkAndGetUser(Long userId) {
         return userRepository.getUserById(userId)
@@ -157,6 +215,30 @@ public class BookingServiceImpl implements BookingService {
                 .orElseThrow(() -> new NotFoundException("Booking with id=" + id + " not found"));
     }
 
+    /**
+     * Те же проверки, что и у самих списков: на условный запрос без них вернулся бы
+     * 304 вместо ошибки.
+     */
+    private void checkListing(Long userId, String state, LocalDateTime cursorStart, Long cursorId, Integer size) {
+        getBookingStatusDto(state);
+        getLimit(size);
+        checkCursor(cursorStart, cursorId);
+        checkUser(userId);
+    }
+
+    private Limit getLimit(Integer size) {
+        if (size == null || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ValidationException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return Limit.of(size);
+    }
+
+    private void checkCursor(LocalDateTime cursorStart, Long cursorId) {
+        if ((cursorStart == null) != (cursorId == null)) {
+            throw new ValidationException("cursorStart and cursorId must be passed together");
+        }
+    }
+
     private BookingStatusDto getBookingStatusDto(String state) {
         BookingStatusDto stateDTO;
         try {
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.server.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.server.booking.dto.BusyIntervalDto;
+import ru.practicum.shareit.server.booking.model.Booking;
+import ru.practicum.shareit.server.booking.repository.BookingRepository;
+import ru.practicum.shareit.server.item.dal.ItemRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Календарь занятости вещей в памяти server. При первом обращении к вещи ее еще
+ * не закончившиеся ожидающие и подтвержденные бронирования читаются одним
+ * запросом и сливаются в {@link BusyIntervals}; новые бронирования добавляются
+ * в готовую запись, а отклонение или удаление пользователя сбрасывает записи.
+ * Бронирования, созданные другими экземплярами server, появляются после
+ * expire-after-write: срок записи отсчитывается от загрузки, и добавление
+ * своих бронирований его не продлевает. Окончательную проверку при бронировании делает
+ * {@link ItemAvailability}. Запись загружается в отдельной транзакции не read-only,
+ * даже если вызывающий код читает в read-only: так она читает основную базу, а
+ * не отстающую реплику, и не застревает в кэше без только что созданного бронирования.
+ */
+@Component
+public class BusyCalendar {
+
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate primaryRead;
+    private final Cache<Long, BusyIntervals> calendars;
+
+    @Autowired
+    public BusyCalendar(BookingRepository bookingRepository,
+                        ItemRepository itemRepository,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${shareit.availability.max-items:10000}") long maxItems,
+                        @Value("${shareit.availability.expire-after-write:1m}") Duration expireAfterLoad,
+                        MeterRegistry registry) {
+        this(bookingRepository, itemRepository, transactionManager, maxItems, expireAfterLoad, registry,
+                Ticker.systemTicker());
+    }
+
+    public BusyCalendar(BookingRepository bookingRepository,
+                        ItemRepository itemRepository,
+                        PlatformTransactionManager transactionManager,
+                        long maxItems,
+                        Duration expireAfterLoad,
+                        MeterRegistry registry,
+                        Ticker ticker) {
+        this.bookingRepository = bookingRepository;
+        this.itemRepository = itemRepository;
+        this.primaryRead = new TransactionTemplate(transactionManager);
+        this.primaryRead.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.primaryRead.setReadOnly(false);
+        this.calendars = Caffeine.newBuilder()
+                .maximumSize(maxItems)
+                .expireAfter(Expiry.<Long, BusyIntervals>creating((itemId, intervals) -> expireAfterLoad))
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, calendars, "item.availability");
+    }
+
+    /**
+     * @return занятые интервалы внутри [from, to) или null, если вещи нет
+     */
+    public List<BusyIntervalDto> busy(Long itemId, LocalDateTime from, LocalDateTime to) {
+        BusyIntervals intervals = calendars.get(itemId, this::load);
+        return intervals == null ? null : intervals.within(from, to);
+    }
+
+    public void onBookingCreated(Booking booking) {
+        calendars.asMap().computeIfPresent(booking.getItem().getId(),
+                (itemId, intervals) -> intervals.with(booking.getStart(), booking.getEnd()));
+    }
+
+    public void onBookingReleased(Long itemId) {
+        calendars.invalidate(itemId);
+    }
+
+    public void onUserDeleted() {
+        calendars.invalidateAll();
+    }
+
+    private BusyIntervals load(Long itemId) {
+        return primaryRead.execute(status -> {
+            if (!itemRepository.existsById(itemId)) {
+                return null;
+            }
+            List<BusyIntervalDto> intervals = bookingRepository.findBusyIntervals(itemId, LocalDateTime.now());
+            return intervals.isEmpty() ? BusyIntervals.EMPTY : BusyIntervals.of(intervals);
+        });
+    }
+}
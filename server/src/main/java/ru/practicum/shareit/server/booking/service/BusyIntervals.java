@@ -0,0 +1,124 @@
+package ru.practicum.shareit.server.booking.service;
+
+import ru.practicum.shareit.server.booking.dto.BusyIntervalDto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Неизменяемый набор непересекающихся полуинтервалов [start, end), отсортированных
+ * по началу. Границы хранятся секундами в двух массивах long: и начала, и концы
+ * возрастают, поэтому окно находится двумя бинарными поисками.
+ */
+final class BusyIntervals {
+
+    static final BusyIntervals EMPTY = new BusyIntervals(new long[0], new long[0]);
+
+    private final long[] starts;
+    private final long[] ends;
+
+    private BusyIntervals(long[] starts, long[] ends) {
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    /**
+     * @param intervals интервалы, отсортированные по началу, возможно пересекающиеся
+     */
+    static BusyIntervals of(List<BusyIntervalDto> intervals) {
+        long[] starts = new long[intervals.size()];
+        long[] ends = new long[intervals.size()];
+        int size = 0;
+        for (BusyIntervalDto interval : intervals) {
+            long start = seconds(interval.getStart());
+            long end = seconds(interval.getEnd());
+            if (size > 0 && start <= ends[size - 1]) {
+                ends[size - 1] = Math.max(ends[size - 1], end);
+            } else {
+                starts[size] = start;
+                ends[size] = end;
+                size++;
+            }
+        }
+        return new BusyIntervals(Arrays.copyOf(starts, size), Arrays.copyOf(ends, size));
+    }
+
+    /**
+     * Копия с добавленным интервалом: соседние интервалы, которые он перекрывает
+     * или которых касается, сливаются с ним.
+     */
+    BusyIntervals with(LocalDateTime from, LocalDateTime to) {
+        long start = seconds(from);
+        long end = seconds(to);
+
+        int first = firstEndingAtOrAfter(start);
+        int last = firstStartingAfter(end);
+        if (first < last) {
+            start = Math.min(start, starts[first]);
+            end = Math.max(end, ends[last - 1]);
+        }
+
+        int size = starts.length - (last - first) + 1;
+        long[] newStarts = new long[size];
+        long[] newEnds = new long[size];
+        System.arraycopy(starts, 0, newStarts, 0, first);
+        System.arraycopy(ends, 0, newEnds, 0, first);
+        newStarts[first] = start;
+        newEnds[first] = end;
+        System.arraycopy(starts, last, newStarts, first + 1, starts.length - last);
+        System.arraycopy(ends, last, newEnds, first + 1, ends.length - last);
+        return new BusyIntervals(newStarts, newEnds);
+    }
+
+    List<BusyIntervalDto> within(LocalDateTime from, LocalDateTime to) {
+        long windowStart = seconds(from);
+        long windowEnd = seconds(to);
+
+        List<BusyIntervalDto> result = new ArrayList<>();
+        for (int i = firstEndingAfter(windowStart); i < starts.length && starts[i] < windowEnd; i++) {
+            result.add(new BusyIntervalDto(time(Math.max(starts[i], windowStart)), time(Math.min(ends[i], windowEnd))));
+        }
+        return result;
+    }
+
+    int size() {
+        return starts.length;
+    }
+
+    private int firstEndingAfter(long time) {
+        return lowerBound(ends, time + 1);
+    }
+
+    private int firstEndingAtOrAfter(long time) {
+        return lowerBound(ends, time);
+    }
+
+    private int firstStartingAfter(long time) {
+        return lowerBound(starts, time + 1);
+    }
+
+    private static int lowerBound(long[] values, long key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static long seconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime time(long seconds) {
+        return LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC);
+    }
+}
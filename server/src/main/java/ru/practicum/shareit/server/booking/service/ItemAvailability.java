@@ -0,0 +1,63 @@
+package ru.practicum.shareit.server.booking.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.server.booking.model.Booking;
+import ru.practicum.shareit.server.booking.repository.BookingRepository;
+import ru.practicum.shareit.server.exception.ConflictException;
+import ru.practicum.shareit.server.exception.NotFoundException;
+import ru.practicum.shareit.server.item.dal.ItemRepository;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Не дает забронировать вещь на время, которое пересекается с ожидающим или
+ * подтвержденным бронированием. Проверка и вставка идут в одной транзакции под
+ * блокировкой строки вещи (SELECT ... FOR UPDATE), поэтому бронирования одной
+ * вещи сериализуются и между экземплярами server, а разных вещей не мешают
+ * друг другу. Полосатые блокировки в памяти держат очередь к одной вещи до
+ * взятия соединения: ожидающие не занимают пул Hikari.
+ */
+@Component
+public class ItemAvailability {
+
+    private static final int STRIPES = 256;
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public ItemAvailability(ItemRepository itemRepository,
+                            BookingRepository bookingRepository,
+                            TransactionTemplate transactionTemplate) {
+        this.itemRepository = itemRepository;
+        this.bookingRepository = bookingRepository;
+        this.transactionTemplate = transactionTemplate;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public Booking reserve(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        ReentrantLock lock = locks[Math.floorMod(Long.hashCode(itemId), STRIPES)];
+
+        lock.lock();
+        try {
+            return transactionTemplate.execute(status -> {
+                itemRepository.lockById(itemId)
+                        .orElseThrow(() -> new NotFoundException("Item with id=" + itemId + " not found"));
+
+                if (bookingRepository.existsOverlapping(itemId, booking.getStart(), booking.getEnd())) {
+                    throw new ConflictException("Item with id=" + itemId + " is already booked between "
+                            + booking.getStart() + " and " + booking.getEnd());
+                }
+
+                return bookingRepository.save(booking);
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.server.common;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Строгие ETag из параметров запроса и сводок {@link VersionStamp} и условные
+ * GET по ним.
+ */
+public class Etags {
+
+    public static String strong(Object... parts) {
+        String joined = Arrays.stream(parts)
+                .map(String::valueOf)
+                .collect(Collectors.joining("|"));
+        return "\"" + DigestUtils.md5DigestAsHex(joined.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * 304 без вызова body, если If-None-Match клиента совпадает с etag, иначе
+     * ответ body с этим ETag. Если body бросает исключение, ETag в ответ об
+     * ошибке не попадает. Так как при совпадении body не вызывается, etag нужно
+     * вычислять после тех же проверок пользователя, доступа и параметров, что и body.
+     */
+    public static <T> ResponseEntity<T> ifNoneMatch(HttpServletRequest request, String etag, Supplier<T> body) {
+        if (new ServletWebRequest(request).checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        T result = body.get();
+        return ResponseEntity.ok().eTag(etag).body(result);
+    }
+}
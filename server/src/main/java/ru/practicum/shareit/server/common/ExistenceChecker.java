@@ -0,0 +1,50 @@
+package ru.practicum.shareit.server.common;
+
+import lombok.AllArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.server.config.CacheConfig;
+import ru.practicum.shareit.server.request.repository.RequestRepository;
+import ru.practicum.shareit.server.user.repository.UserRepository;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Проверки существования без загрузки сущностей: сначала кэш пользователей,
+ * затем SELECT по первичному ключу без чтения строки (existsById).
+ */
+@Component
+@AllArgsConstructor
+public class ExistenceChecker {
+
+    private final UserRepository userRepository;
+    private final RequestRepository requestRepository;
+    private final CacheManager cacheManager;
+
+    public boolean userExists(Long userId) {
+        if (userId == null) {
+            return false;
+        }
+        Cache users = cacheManager.getCache(CacheConfig.USERS_CACHE);
+        if (users != null && users.get(userId) != null) {
+            return true;
+        }
+        return userRepository.existsById(userId);
+    }
+
+    public boolean requestExists(Long requestId) {
+        return requestId != null && requestRepository.existsById(requestId);
+    }
+
+    /**
+     * Одним запросом с IN возвращает те id из requestIds, для которых запрос существует.
+     */
+    public Set<Long> existingRequests(Collection<Long> requestIds) {
+        if (requestIds.isEmpty()) {
+            return Set.of();
+        }
+        return requestRepository.findExistingIds(requestIds);
+    }
+}
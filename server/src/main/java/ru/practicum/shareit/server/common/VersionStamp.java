@@ -0,0 +1,23 @@
+package ru.practicum.shareit.server.common;
+
+/**
+ * Сводка по набору строк, из которых собирается ответ: число строк, наибольший
+ * id и сумма версий, а для бронирований еще число уже начавшихся и уже
+ * закончившихся. Вставка, удаление или обновление любой строки меняет сводку,
+ * переход бронирования из будущего в текущее или прошедшее тоже, так что ETag
+ * из нее меняется всякий раз, когда может измениться сам ответ.
+ */
+public record VersionStamp(Long rows, Long maxId, Long versions, Long started, Long ended) {
+
+    public VersionStamp {
+        rows = rows == null ? 0L : rows;
+        maxId = maxId == null ? 0L : maxId;
+        versions = versions == null ? 0L : versions;
+        started = started == null ? 0L : started;
+        ended = ended == null ? 0L : ended;
+    }
+
+    public VersionStamp(Long rows, Long maxId, Long versions) {
+        this(rows, maxId, versions, 0L, 0L);
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.server.config;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Меняет maximumPoolSize основного пула в границах {@link PoolSizing}. Пока есть
+ * потоки, ждущие соединения, пул растет на их число, но не больше чем вдвое за
+ * проверку. Если shrink-after проверок подряд никто не ждет и занято не больше
+ * половины соединений, пул уменьшается на половину разницы между размером и
+ * удвоенным числом занятых. Лишние простаивающие соединения Hikari закрывает сам
+ * по idle-timeout, так как minimumIdle в этом режиме равен нижней границе.
+ */
+@Slf4j
+public class AdaptivePoolSizer {
+
+    private final HikariDataSource dataSource;
+    private final PoolSizing sizing;
+    private final int shrinkAfter;
+    private int quietChecks;
+
+    public AdaptivePoolSizer(HikariDataSource dataSource, PoolSizing sizing, int shrinkAfter) {
+        this.dataSource = dataSource;
+        this.sizing = sizing;
+        this.shrinkAfter = shrinkAfter;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.db.pool.adaptive.interval:5s}")
+    public synchronized void resize() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool == null) {
+            return;
+        }
+        HikariConfigMXBean config = dataSource.getHikariConfigMXBean();
+        int size = config.getMaximumPoolSize();
+        int pending = pool.getThreadsAwaitingConnection();
+
+        if (pending > 0) {
+            quietChecks = 0;
+            if (size < sizing.maxSize()) {
+                resize(config, size, Math.min(sizing.maxSize(), size + Math.min(pending, size)), pending);
+            }
+        } else if (pool.getActiveConnections() * 2 <= size && size > sizing.minSize()) {
+            if (++quietChecks >= shrinkAfter) {
+                quietChecks = 0;
+                int step = Math.max(1, (size - pool.getActiveConnections() * 2) / 2);
+                resize(config, size, Math.max(sizing.minSize(), size - step), pending);
+            }
+        } else {
+            quietChecks = 0;
+        }
+    }
+
+    private void resize(HikariConfigMXBean config, int from, int to, int pending) {
+        config.setMaximumPoolSize(to);
+        log.info("Pool {} resized from {} to {} connections, {} threads awaiting connection",
+                config.getPoolName(), from, to, pending);
+    }
+}
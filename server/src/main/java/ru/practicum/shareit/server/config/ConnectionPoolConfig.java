@@ -0,0 +1,71 @@
+package ru.practicum.shareit.server.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Properties;
+
+/**
+ * Размер основного пула Hikari по {@link PoolSizing} и кэш подготовленных выражений
+ * pgjdbc: выражение становится серверным после prepare-threshold выполнений, и на
+ * соединение кэшируется до statement-cache-queries таких выражений. Остальные
+ * настройки пула, включая leak-detection-threshold, задаются в spring.datasource.hikari.
+ */
+@Configuration
+public class ConnectionPoolConfig {
+
+    public static final String PRIMARY_POOL = "primary";
+
+    @Bean
+    public static BeanPostProcessor connectionPoolSizing(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource pool)) {
+                    return bean;
+                }
+                PoolSizing sizing = PoolSizing.from(environment);
+                pool.setMaximumPoolSize(sizing.adaptive() ? sizing.minSize() : sizing.maxSize());
+                if (sizing.adaptive()) {
+                    pool.setMinimumIdle(sizing.minSize());
+                }
+                if (pool.getPoolName() == null) {
+                    pool.setPoolName(PRIMARY_POOL);
+                }
+                cacheStatements(pool, environment);
+                return pool;
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit.db.pool.adaptive.enabled", havingValue = "true")
+    public AdaptivePoolSizer adaptivePoolSizer(DataSource dataSource,
+                                               Environment environment,
+                                               @Value("${shareit.db.pool.adaptive.shrink-after:12}") int shrinkAfter)
+            throws SQLException {
+        return new AdaptivePoolSizer(dataSource.unwrap(HikariDataSource.class), PoolSizing.from(environment),
+                shrinkAfter);
+    }
+
+    static void cacheStatements(HikariConfig config, Environment environment) {
+        if (config.getJdbcUrl() == null || !config.getJdbcUrl().startsWith("jdbc:postgresql:")) {
+            return;
+        }
+        Properties properties = config.getDataSourceProperties();
+        properties.putIfAbsent("prepareThreshold",
+                environment.getProperty("shareit.db.pool.prepare-threshold", "5"));
+        properties.putIfAbsent("preparedStatementCacheQueries",
+                environment.getProperty("shareit.db.pool.statement-cache-queries", "256"));
+        properties.putIfAbsent("preparedStatementCacheSizeMiB",
+                environment.getProperty("shareit.db.pool.statement-cache-size-mib", "5"));
+    }
+}
@@ -0,0 +1,131 @@
+package ru.practicum.shareit.server.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.temporal.Temporal;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Время методов сервисов в метрике shareit.service.invocations (теги service, method,
+ * exception). Время методов репозиториев Spring Boot пишет сам в
+ * spring.data.repository.invocations, а здесь запросы дольше
+ * shareit.db.slow-query-threshold попадают в лог с параметрами и методом сервиса,
+ * из которого они вызваны. Вместе с http.server.requests это разделяет время
+ * ответа на запросы к базе, сборку ответа в сервисе и сериализацию.
+ */
+@Slf4j
+@Aspect
+@Component
+public class LatencyAspect {
+
+    private static final int MAX_ARGUMENT_LENGTH = 200;
+    private static final int MAX_LOGGED_ELEMENTS = 10;
+    private static final ThreadLocal<String> CURRENT_SERVICE_METHOD = new ThreadLocal<>();
+
+    private final Timer.MeterProvider<Timer> serviceTimers;
+    private final long slowQueryNanos;
+
+    public LatencyAspect(MeterRegistry registry,
+                         @Value("${shareit.db.slow-query-threshold:100ms}") Duration slowQueryThreshold) {
+        this.serviceTimers = Timer.builder("shareit.service.invocations")
+                .description("Duration of service method invocations")
+                .withRegistry(registry);
+        this.slowQueryNanos = slowQueryThreshold.toNanos();
+    }
+
+    @Around("@within(org.springframework.stereotype.Service)")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        String service = joinPoint.getTarget().getClass().getSimpleName();
+        String method = joinPoint.getSignature().getName();
+        String caller = CURRENT_SERVICE_METHOD.get();
+        CURRENT_SERVICE_METHOD.set(service + "." + method);
+        String exception = "none";
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            serviceTimers.withTags("service", service, "method", method, "exception", exception)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (caller == null) {
+                CURRENT_SERVICE_METHOD.remove();
+            } else {
+                CURRENT_SERVICE_METHOD.set(caller);
+            }
+        }
+    }
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object logSlowQuery(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            if (elapsed >= slowQueryNanos) {
+                // Унаследованные методы (save, findById) объявлены в CrudRepository, поэтому
+                // имя берется у интерфейса самого репозитория
+                Class<?>[] repository = AopProxyUtils.proxiedUserInterfaces(joinPoint.getThis());
+                log.warn("Slow query {}.{}({}) took {} ms, called from {}",
+                        repository[0].getSimpleName(), joinPoint.getSignature().getName(),
+                        describe(joinPoint.getArgs()), Duration.ofNanos(elapsed).toMillis(),
+                        CURRENT_SERVICE_METHOD.get() == null ? "outside services" : CURRENT_SERVICE_METHOD.get());
+            }
+        }
+    }
+
+    /**
+     * Значения простых типов пишутся как есть, у коллекций размер и первые элементы,
+     * у остальных объектов только класс: toString сущности может подгрузить
+     * ленивые связи.
+     */
+    static String describe(Object[] args) {
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < args.length; i++) {
+            if (i > 0) {
+                description.append(", ");
+            }
+            description.append(describe(args[i]));
+        }
+        return description.toString();
+    }
+
+    private static String describe(Object arg) {
+        if (arg instanceof Collection<?> collection) {
+            String elements = collection.stream()
+                    .limit(MAX_LOGGED_ELEMENTS)
+                    .map(LatencyAspect::describe)
+                    .collect(Collectors.joining(", "));
+            return collection.size() + " elements [" + elements
+                    + (collection.size() > MAX_LOGGED_ELEMENTS ? ", ...]" : "]");
+        }
+        if (arg == null || arg instanceof Number || arg instanceof Boolean || arg instanceof Enum<?>
+                || arg instanceof Temporal || arg instanceof UUID || arg instanceof Pageable) {
+            return String.valueOf(arg);
+        }
+        if (arg instanceof Limit limit) {
+            return limit.isLimited() ? "limit " + limit.max() : "unlimited";
+        }
+        if (arg instanceof CharSequence text) {
+            return "'" + (text.length() > MAX_ARGUMENT_LENGTH
+                    ? text.subSequence(0, MAX_ARGUMENT_LENGTH) + "..." : text) + "'";
+        }
+        return arg.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,87 @@
+package ru.practicum.shareit.server.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Следит через JFR за событиями jdk.VirtualThreadPinned: виртуальный поток
+ * заблокировался внутри synchronized или нативного кадра и занял поток-носитель.
+ * Каждое такое событие пишется в лог с верхушкой стека и считается в метрике
+ * с тегом source — компонентом server, в кадре которого поток встал.
+ * <p>
+ * В server поток закрепляют прежде всего обращения к базе: H2 ждет
+ * ввода-вывода внутри synchronized, драйвер PostgreSQL делал так же до
+ * версии 42.6. Caffeine загружает календарь вещи внутри synchronized
+ * ConcurrentHashMap.compute, поэтому чтение интервалов из базы в
+ * {@code BusyCalendar} тоже закрепляет поток. Остальные кадры считаются
+ * с source=other.
+ */
+@Slf4j
+public class PinnedThreadMonitor implements AutoCloseable {
+
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 8;
+    private static final String OTHER = "other";
+    private static final List<Map.Entry<String, String>> SOURCES = List.of(
+            Map.entry("org.h2.", "h2"),
+            Map.entry("org.postgresql.", "postgresql"),
+            Map.entry("com.github.benmanes.caffeine.", "caffeine"));
+
+    private final RecordingStream stream = new RecordingStream();
+
+    public PinnedThreadMonitor(MeterRegistry registry, Duration threshold) {
+        stream.enable(EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(EVENT, event -> {
+            List<RecordedFrame> stack = event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames();
+            String source = source(stack.stream().map(frame -> frame.getMethod().getType().getName()).toList());
+            pinned(registry, source).increment();
+
+            String frames = stack.stream()
+                    .limit(LOGGED_FRAMES)
+                    .map(PinnedThreadMonitor::frame)
+                    .collect(Collectors.joining("\n\tat ", "\n\tat ", ""));
+            log.warn("Virtual thread pinned in {} for {} ms{}", source, event.getDuration().toMillis(), frames);
+        });
+        stream.startAsync();
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+
+    /**
+     * @param types классы кадров стека, начиная с верхнего
+     * @return компонент первого известного кадра или other
+     */
+    static String source(List<String> types) {
+        for (String type : types) {
+            for (Map.Entry<String, String> source : SOURCES) {
+                if (type.startsWith(source.getKey())) {
+                    return source.getValue();
+                }
+            }
+        }
+        return OTHER;
+    }
+
+    private static Counter pinned(MeterRegistry registry, String source) {
+        return Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads pinned to their carrier longer than the threshold")
+                .tag("source", source)
+                .register(registry);
+    }
+
+    private static String frame(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.server.config;
+
+import org.springframework.core.env.Environment;
+
+/**
+ * Границы основного пула Hikari. Без явного spring.datasource.hikari.maximum-pool-size
+ * пул получает 2 * ядер + 1 соединений, но не больше доли экземпляра server в лимите
+ * базы: (max-connections - reserved-connections) / instances. В адаптивном режиме
+ * пул начинает с min-size (по умолчанию ядер + 1) и растет до max-size
+ * (по умолчанию вся доля в лимите базы).
+ */
+public record PoolSizing(int minSize, int maxSize, boolean adaptive) {
+
+    public static PoolSizing from(Environment environment) {
+        return from(environment, Runtime.getRuntime().availableProcessors());
+    }
+
+    static PoolSizing from(Environment environment, int cores) {
+        int maxConnections = environment.getProperty("shareit.db.pool.max-connections", Integer.class, 100);
+        int reserved = environment.getProperty("shareit.db.pool.reserved-connections", Integer.class, 3);
+        int instances = environment.getProperty("shareit.db.pool.instances", Integer.class, 1);
+        int share = Math.max(1, (maxConnections - reserved) / Math.max(1, instances));
+        Integer explicit = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class);
+        boolean adaptive = environment.getProperty("shareit.db.pool.adaptive.enabled", Boolean.class, false);
+
+        if (!adaptive) {
+            int size = explicit != null ? explicit : Math.min(cores * 2 + 1, share);
+            return new PoolSizing(size, size, false);
+        }
+        int max = environment.getProperty("shareit.db.pool.adaptive.max-size", Integer.class,
+                explicit != null ? explicit : share);
+        int min = environment.getProperty("shareit.db.pool.adaptive.min-size", Integer.class, cores + 1);
+        return new PoolSizing(Math.max(1, Math.min(min, max)), Math.max(1, max), true);
+    }
+}
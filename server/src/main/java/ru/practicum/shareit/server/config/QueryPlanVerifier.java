@@ -0,0 +1,132 @@
+package ru.practicum.shareit.server.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Проверяет при старте, что планы запросов BookingRepository идут через индексы
+ * из миграций V3 и V7. Последовательное сканирование отключается на время проверки,
+ * чтобы маленькие таблицы не маскировали отсутствие индекса. Проверка выполняется
+ * только на PostgreSQL: оптимизатор H2 не учитывает ORDER BY при выборе индекса.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.db.plan-check.enabled", havingValue = "true")
+public class QueryPlanVerifier implements ApplicationRunner {
+
+    private static final List<AccessPath> ACCESS_PATHS = List.of(
+            new AccessPath("bookings by booker",
+                    "SELECT b.* FROM bookings b WHERE b.booker_id = 1 "
+                            + "ORDER BY b.start_date DESC, b.id DESC LIMIT 20",
+                    "idx_bookings_booker_start", "idx_bookings_booker_status_start"),
+            new AccessPath("bookings by booker and status",
+                    "SELECT b.* FROM bookings b WHERE b.booker_id = 1 AND b.status = 'WAITING' "
+                            + "ORDER BY b.start_date DESC, b.id DESC LIMIT 20",
+                    "idx_bookings_booker_status_start", "idx_bookings_booker_status_phase_start"),
+            new AccessPath("bookings by booker, status and phase",
+                    "SELECT b.* FROM bookings b WHERE b.booker_id = 1 AND b.status = 'APPROVED' "
+                            + "AND b.phase = 'PAST' ORDER BY b.start_date DESC, b.id DESC LIMIT 20",
+                    "idx_bookings_booker_status_phase_start"),
+            new AccessPath("items by owner",
+                    "SELECT i.id FROM items i WHERE i.owner_id = 1",
+                    "idx_items_owner"),
+            new AccessPath("bookings by owner",
+                    "SELECT b.* FROM bookings b JOIN items i ON i.id = b.item_id WHERE i.owner_id = 1 "
+                            + "ORDER BY b.start_date DESC, b.id DESC LIMIT 20",
+                    "idx_bookings_item_start", "idx_bookings_item_end"),
+            new AccessPath("started bookings",
+                    "SELECT b.id FROM bookings b WHERE b.phase = 'FUTURE' AND b.start_date <= CURRENT_TIMESTAMP",
+                    "idx_bookings_phase_start"),
+            new AccessPath("ended bookings",
+                    "SELECT b.id FROM bookings b WHERE b.phase IN ('FUTURE', 'CURRENT') "
+                            + "AND b.end_date < CURRENT_TIMESTAMP",
+                    "idx_bookings_phase_end"),
+            new AccessPath("next booking of item",
+                    "SELECT b.* FROM bookings b WHERE b.item_id = 1 AND b.start_date > CURRENT_TIMESTAMP "
+                            + "ORDER BY b.start_date ASC LIMIT 1",
+                    "idx_bookings_item_start"),
+            new AccessPath("last booking of item",
+                    "SELECT b.* FROM bookings b WHERE b.item_id = 1 AND b.end_date < CURRENT_TIMESTAMP "
+                            + "ORDER BY b.end_date DESC LIMIT 1",
+                    "idx_bookings_item_end"),
+            new AccessPath("overlapping bookings of item",
+                    "SELECT 1 FROM bookings b WHERE b.item_id = 1 AND b.status IN ('WAITING', 'APPROVED') "
+                            + "AND b.end_date > CURRENT_TIMESTAMP AND b.start_date < CURRENT_TIMESTAMP + INTERVAL '1 day'",
+                    "idx_bookings_item_end", "idx_bookings_item_start")
+    );
+
+    private final DataSource dataSource;
+    private final boolean failOnMismatch;
+
+    public QueryPlanVerifier(DataSource dataSource,
+                             @Value("${shareit.db.plan-check.fail-on-mismatch:true}") boolean failOnMismatch) {
+        this.dataSource = dataSource;
+        this.failOnMismatch = failOnMismatch;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws SQLException {
+        List<String> mismatches = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            String database = connection.getMetaData().getDatabaseProductName();
+            if (!"PostgreSQL".equals(database)) {
+                log.info("Query plan check skipped for {}", database);
+                return;
+            }
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET LOCAL enable_seqscan = off");
+                for (AccessPath path : ACCESS_PATHS) {
+                    String plan = explain(statement, path.sql()).toLowerCase(Locale.ROOT);
+                    if (path.indexes().stream().noneMatch(plan::contains)) {
+                        mismatches.add(path.name() + " does not use any of " + path.indexes() + ":\n" + plan);
+                    }
+                }
+            } finally {
+                connection.rollback();
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+
+        if (mismatches.isEmpty()) {
+            log.info("Query plans use expected indexes for {} access paths", ACCESS_PATHS.size());
+            return;
+        }
+        mismatches.forEach(mismatch -> log.warn("Query plan check failed: {}", mismatch));
+        if (failOnMismatch) {
+            throw new IllegalStateException("Query plans do not use expected indexes: " + mismatches.size()
+                    + " access path(s) failed");
+        }
+    }
+
+    private static String explain(Statement statement, String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (ResultSet rs = statement.executeQuery("EXPLAIN " + sql)) {
+            while (rs.next()) {
+                plan.append(rs.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    private record AccessPath(String name, String sql, List<String> indexes) {
+
+        AccessPath(String name, String sql, String... indexes) {
+            this(name, sql, List.of(indexes));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.server.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * Закрепляет запросы за основной базой. Запросы на запись читают только из нее,
+ * чтобы не сверять версии с отстающей репликой. Чтения пользователя из
+ * X-Sharer-User-Id идут в нее в течение окна read-your-writes после его последней
+ * записи. Окно считается отдельно на каждом экземпляре server.
+ */
+public class ReadYourWrites implements AsyncHandlerInterceptor {
+
+    static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final long MAX_WRITERS = 100_000;
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWrites(Duration window) {
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(MAX_WRITERS)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String userId = request.getHeader(USER_HEADER);
+        if (isWrite(request)) {
+            recordWrite(userId);
+            PRIMARY.set(Boolean.TRUE);
+        } else if (userId != null && recentWriters.getIfPresent(userId) != null) {
+            PRIMARY.set(Boolean.TRUE);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (isWrite(request)) {
+            recordWrite(request.getHeader(USER_HEADER));
+        }
+        PRIMARY.remove();
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        PRIMARY.remove();
+    }
+
+    public boolean primaryPinned() {
+        return PRIMARY.get() != null;
+    }
+
+    private void recordWrite(String userId) {
+        if (userId != null) {
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod());
+    }
+}
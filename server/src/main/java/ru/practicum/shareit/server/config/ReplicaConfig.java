@@ -0,0 +1,135 @@
+package ru.practicum.shareit.server.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Включается, когда заданы shareit.datasource.replica.urls: read-only транзакции
+ * читают с реплик, запись и закрепленные за основной базой запросы идут в нее.
+ * Пулы реплик получают настройки spring.datasource.hikari, учетные данные
+ * основной базы, если не заданы свои, и размер от нижней до верхней границы
+ * {@link PoolSizing}: до верхней Hikari добирает соединения по требованию.
+ * С виртуальными потоками у каждого пула реплики свой ограничитель конкурентности
+ * по его размеру, а ограничитель основной базы маршрутизация оборачивает снаружи
+ * ({@link VirtualThreadConfig#LIMITER_ORDER}), так что чтения с реплик его не занимают.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.datasource.replica.urls")
+public class ReplicaConfig {
+
+    public static final int ROUTING_ORDER = Ordered.LOWEST_PRECEDENCE;
+
+    @Bean
+    public ReadYourWrites readYourWrites(
+            @Value("${shareit.datasource.replica.read-your-writes:5s}") Duration window) {
+        return new ReadYourWrites(window);
+    }
+
+    @Bean
+    public WebMvcConfigurer readYourWritesInterceptor(ReadYourWrites readYourWrites) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(readYourWrites);
+            }
+        };
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaSet replicaSet(DataSourceProperties primary,
+                                 Environment environment,
+                                 @Value("${shareit.datasource.replica.urls}") List<String> urls,
+                                 @Value("${shareit.datasource.replica.username:}") String username,
+                                 @Value("${shareit.datasource.replica.password:}") String password,
+                                 @Value("${shareit.datasource.replica.max-lag:5s}") Duration maxLag,
+                                 @Value("${shareit.datasource.replica.lag-query:}") String lagQuery,
+                                 @Value("${shareit.db.acquire-timeout:30s}") Duration acquireTimeout,
+                                 ReadYourWrites readYourWrites,
+                                 ObjectProvider<MeterRegistry> registry) {
+        PoolSizing sizing = PoolSizing.from(environment);
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (String url : urls) {
+            HikariConfig config = Binder.get(environment)
+                    .bind("spring.datasource.hikari", HikariConfig.class)
+                    .orElseGet(HikariConfig::new);
+            config.setPoolName("replica-" + (pools.size() + 1));
+            config.setJdbcUrl(url.trim());
+            config.setDriverClassName(primary.determineDriverClassName());
+            config.setUsername(username.isEmpty() ? primary.determineUsername() : username);
+            config.setPassword(password.isEmpty() ? primary.determinePassword() : password);
+            config.setMaximumPoolSize(sizing.maxSize());
+            config.setMinimumIdle(sizing.minSize());
+            config.setReadOnly(true);
+            // Недоступная при старте реплика не мешает подняться server: чтения идут в основную базу
+            config.setInitializationFailTimeout(-1);
+            ConnectionPoolConfig.cacheStatements(config, environment);
+            registry.ifAvailable(config::setMetricRegistry);
+            pools.add(new HikariDataSource(config));
+        }
+
+        Function<HikariDataSource, DataSource> connections = Threading.VIRTUAL.isActive(environment)
+                ? pool -> VirtualThreadConfig.limit(pool, pool.getPoolName(), sizing.maxSize(), acquireTimeout, registry)
+                : pool -> pool;
+        ReplicaSet replicas = new ReplicaSet(pools, maxLag, lagQuery, readYourWrites, connections);
+        registry.ifAvailable(meters -> {
+            List<String> names = replicas.poolNames();
+            for (int i = 0; i < names.size(); i++) {
+                int index = i;
+                Gauge.builder("shareit.db.replica.lag", replicas, set -> set.lagSeconds(index))
+                        .tag("pool", names.get(i))
+                        .baseUnit("seconds")
+                        .description("Replication lag of the replica, NaN while it is unavailable")
+                        .register(meters);
+            }
+        });
+        return replicas;
+    }
+
+    @Bean
+    public static ReplicaRouting replicaRouting(ObjectProvider<ReplicaSet> replicas) {
+        return new ReplicaRouting(replicas);
+    }
+
+    static final class ReplicaRouting implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<ReplicaSet> replicas;
+
+        private ReplicaRouting(ObjectProvider<ReplicaSet> replicas) {
+            this.replicas = replicas;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource) || bean instanceof ReplicaRoutingDataSource) {
+                return bean;
+            }
+            return new ReplicaRoutingDataSource(dataSource, replicas.getObject());
+        }
+
+        @Override
+        public int getOrder() {
+            return ROUTING_ORDER;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.server.config;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Соединение берется только при первом запросе к базе, когда транзакция уже
+ * пометила его read-only: такие транзакции ({@code @Transactional(readOnly = true)}
+ * сервисов и методы чтения репозиториев) читают с реплик, остальные идут в основную базу.
+ */
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy {
+
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaSet replicas) {
+        super(primary);
+        setReadOnlyDataSource(new ReadOnlyRoute(primary, replicas));
+    }
+
+    private static final class ReadOnlyRoute extends AbstractDataSource {
+
+        private final DataSource primary;
+        private final ReplicaSet replicas;
+
+        private ReadOnlyRoute(DataSource primary, ReplicaSet replicas) {
+            this.primary = primary;
+            this.replicas = replicas;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return replicas.getConnection(primary);
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return primary.getConnection(username, password);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package ru.practicum.shareit.server.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Пулы реплик с их отставанием от основной базы. Соединение для чтения выдается
+ * по кругу из реплик, отставание которых не больше max-lag; пока отставание
+ * не измерено, реплика недоступна или запрос закреплен за основной базой
+ * ({@link ReadYourWrites}), соединение берется из основного пула.
+ *
+ * <p>Отставание PostgreSQL считается по времени последней проигранной транзакции,
+ * если полученный WAL еще не проигран. Для других баз без lag-query
+ * реплика считается не отстающей, так что в тестах ее роль играет вторая база H2.
+ */
+@Slf4j
+public class ReplicaSet implements AutoCloseable {
+
+    static final String POSTGRES_LAG_QUERY = "SELECT COALESCE(CASE WHEN pg_last_wal_receive_lsn() = "
+            + "pg_last_wal_replay_lsn() THEN 0 ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) "
+            + "END, 0)";
+    private static final long UNAVAILABLE = Long.MAX_VALUE;
+
+    private final List<Replica> replicas;
+    private final long maxLagMillis;
+    private final String lagQuery;
+    private final ReadYourWrites readYourWrites;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaSet(List<HikariDataSource> pools, Duration maxLag, String lagQuery, ReadYourWrites readYourWrites) {
+        this(pools, maxLag, lagQuery, readYourWrites, pool -> pool);
+    }
+
+    /**
+     * Соединения для чтения берутся через connections, например с ограничителем
+     * конкурентности своего пула, а проверка отставания идет в пул напрямую.
+     */
+    public ReplicaSet(List<HikariDataSource> pools, Duration maxLag, String lagQuery, ReadYourWrites readYourWrites,
+                      Function<HikariDataSource, DataSource> connections) {
+        this.replicas = pools.stream().map(pool -> new Replica(pool, connections.apply(pool))).toList();
+        this.maxLagMillis = maxLag.toMillis();
+        this.lagQuery = lagQuery == null || lagQuery.isBlank() ? null : lagQuery;
+        this.readYourWrites = readYourWrites;
+    }
+
+    public Connection getConnection(DataSource primary) throws SQLException {
+        if (!readYourWrites.primaryPinned()) {
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+                if (replica.lagMillis > maxLagMillis) {
+                    continue;
+                }
+                try {
+                    return replica.connections.getConnection();
+                } catch (SQLException e) {
+                    replica.lagMillis = UNAVAILABLE;
+                    log.warn("Replica {} is unavailable, reading from primary: {}",
+                            replica.pool.getPoolName(), e.getMessage());
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.datasource.replica.lag-check-interval:1s}")
+    public void refreshLag() {
+        replicas.forEach(this::refreshLag);
+    }
+
+    /**
+     * Отставание реплики в секундах, NaN если она недоступна или еще не проверена.
+     */
+    public double lagSeconds(int index) {
+        long lag = replicas.get(index).lagMillis;
+        return lag == UNAVAILABLE ? Double.NaN : lag / 1000.0;
+    }
+
+    public List<String> poolNames() {
+        return replicas.stream().map(replica -> replica.pool.getPoolName()).toList();
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    private void refreshLag(Replica replica) {
+        try (Connection connection = replica.pool.getConnection()) {
+            String query = lagQuery;
+            if (query == null && "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+                query = POSTGRES_LAG_QUERY;
+            }
+            replica.lagMillis = query == null ? 0 : measure(connection, query);
+        } catch (SQLException e) {
+            if (replica.lagMillis != UNAVAILABLE) {
+                log.warn("Replica {} lag check failed: {}", replica.pool.getPoolName(), e.getMessage());
+            }
+            replica.lagMillis = UNAVAILABLE;
+        }
+    }
+
+    private static long measure(Connection connection, String query) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(query)) {
+            if (!resultSet.next()) {
+                throw new SQLException("Lag query returned no rows");
+            }
+            return Math.round(resultSet.getDouble(1) * 1000);
+        }
+    }
+
+    private static final class Replica {
+
+        private final HikariDataSource pool;
+        private final DataSource connections;
+        private volatile long lagMillis = UNAVAILABLE;
+
+        private Replica(HikariDataSource pool, DataSource connections) {
+            this.pool = pool;
+            this.connections = connections;
+        }
+    }
+}
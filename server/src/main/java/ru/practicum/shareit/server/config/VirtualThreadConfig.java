@@ -0,0 +1,86 @@
+package ru.practicum.shareit.server.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Включается вместе со spring.threads.virtual.enabled (профиль virtual):
+ * Tomcat обрабатывает запросы в виртуальных потоках, доступ к базе
+ * ограничен числом соединений пула, а закрепления потоков видны в логе.
+ * Ограничитель оборачивает только основной пул, раньше маршрутизации на реплики
+ * ({@link ReplicaConfig#ROUTING_ORDER}): у пулов реплик свои ограничители.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    public static final int LIMITER_ORDER = ReplicaConfig.ROUTING_ORDER - 1;
+
+    @Bean
+    public static ConcurrencyLimiting dbConcurrencyLimiter(
+            @Value("${shareit.db.max-concurrency:0}") int maxConcurrency,
+            @Value("${shareit.db.acquire-timeout:30s}") Duration acquireTimeout,
+            Environment environment,
+            ObjectProvider<MeterRegistry> registry) {
+        // По умолчанию семафор пропускает столько потоков, сколько соединений может быть в пуле
+        int permits = maxConcurrency > 0 ? maxConcurrency : PoolSizing.from(environment).maxSize();
+        return new ConcurrencyLimiting(permits, acquireTimeout, registry);
+    }
+
+    @Bean(destroyMethod = "close")
+    public PinnedThreadMonitor pinnedThreadMonitor(
+            MeterRegistry registry,
+            @Value("${shareit.threads.pinned-threshold:20ms}") Duration threshold) {
+        return new PinnedThreadMonitor(registry, threshold);
+    }
+
+    static ConcurrencyLimitedDataSource limit(DataSource dataSource, String poolName, int permits,
+                                              Duration acquireTimeout, ObjectProvider<MeterRegistry> registry) {
+        ConcurrencyLimitedDataSource limited = new ConcurrencyLimitedDataSource(dataSource, permits, acquireTimeout);
+        registry.ifAvailable(meters -> Gauge.builder("shareit.db.permits.available",
+                        limited, ConcurrencyLimitedDataSource::availablePermits)
+                .tag("pool", poolName)
+                .description("Free slots of the database concurrency limiter")
+                .register(meters));
+        return limited;
+    }
+
+    static final class ConcurrencyLimiting implements BeanPostProcessor, Ordered {
+
+        private final int permits;
+        private final Duration acquireTimeout;
+        private final ObjectProvider<MeterRegistry> registry;
+
+        private ConcurrencyLimiting(int permits, Duration acquireTimeout, ObjectProvider<MeterRegistry> registry) {
+            this.permits = permits;
+            this.acquireTimeout = acquireTimeout;
+            this.registry = registry;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitedDataSource
+                    || bean instanceof ReplicaRoutingDataSource) {
+                return bean;
+            }
+            return limit(dataSource, ConnectionPoolConfig.PRIMARY_POOL, permits, acquireTimeout, registry);
+        }
+
+        @Override
+        public int getOrder() {
+            return LIMITER_ORDER;
+        }
+    }
+}
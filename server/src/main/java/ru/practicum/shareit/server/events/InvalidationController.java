@@ -0,0 +1,21 @@
+package ru.practicum.shareit.server.events;
+
+import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping(path = "/events")
+@AllArgsConstructor
+public class InvalidationController {
+
+    private final InvalidationStream stream;
+
+    @GetMapping(path = "/invalidations", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe() {
+        return stream.subscribe();
+    }
+}
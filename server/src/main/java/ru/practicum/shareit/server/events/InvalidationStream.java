@@ -0,0 +1,76 @@
+package ru.practicum.shareit.server.events;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Раздает события {@link ResourceChangedEvent} подписчикам по SSE. Сразу после
+ * подписки и затем между событиями подписчикам уходят комментарии, чтобы они
+ * могли отличить тихий поток от оборванного соединения.
+ */
+@Slf4j
+@Component
+public class InvalidationStream {
+
+    static final String EVENT_NAME = "invalidate";
+
+    private final List<SseEmitter> subscribers = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "invalidation-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public InvalidationStream(@Value("${shareit.events.heartbeat:15s}") Duration heartbeatInterval) {
+        heartbeat.scheduleAtFixedRate(() -> broadcast(SseEmitter.event().comment("heartbeat")),
+                heartbeatInterval.toMillis(), heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(0L);
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(error -> subscribers.remove(emitter));
+        subscribers.add(emitter);
+        try {
+            emitter.send(SseEmitter.event().comment("connected"));
+        } catch (IOException e) {
+            subscribers.remove(emitter);
+        }
+        return emitter;
+    }
+
+    @EventListener
+    public void onResourceChanged(ResourceChangedEvent event) {
+        broadcast(SseEmitter.event().name(EVENT_NAME).data(event.path()));
+    }
+
+    @PreDestroy
+    public void close() {
+        heartbeat.shutdownNow();
+        subscribers.forEach(SseEmitter::complete);
+    }
+
+    private void broadcast(SseEmitter.SseEventBuilder event) {
+        for (SseEmitter emitter : subscribers) {
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping invalidation subscriber: {}", e.getMessage());
+                subscribers.remove(emitter);
+            }
+        }
+    }
+}
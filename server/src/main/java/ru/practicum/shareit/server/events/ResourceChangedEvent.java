@@ -0,0 +1,20 @@
+package ru.practicum.shareit.server.events;
+
+/**
+ * Путь ресурса, чье GET-представление изменилось после записи. Gateway
+ * получает эти пути из потока /events/invalidations и сбрасывает их из кэша.
+ */
+public record ResourceChangedEvent(String path) {
+
+    public static ResourceChangedEvent item(Long itemId) {
+        return new ResourceChangedEvent("/items/" + itemId);
+    }
+
+    public static ResourceChangedEvent request(Long requestId) {
+        return new ResourceChangedEvent("/requests/" + requestId);
+    }
+
+    public static ResourceChangedEvent user(Long userId) {
+        return new ResourceChangedEvent("/users/" + userId);
+    }
+}
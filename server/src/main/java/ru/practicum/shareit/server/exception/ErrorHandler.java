@@ -1,5 +1,6 @@
 package ru.practicum.shareit.server.exception;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -27,6 +28,13 @@ public class ErrorHandler {
         return new ErrorResponse("ConflictException", e.getMessage(), e.getStackTrace());
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse optimisticLockExceptionHandler(OptimisticLockingFailureException e) {
+        return new ErrorResponse("ConflictException", "Resource was modified concurrently, retry the request",
+                e.getStackTrace());
+    }
+
     @ExceptionHandler({ForbiddenException.class})
     @ResponseStatus(HttpStatus.FORBIDDEN)
     public ErrorResponse forbiddenExceptionHandler(ForbiddenException e) {
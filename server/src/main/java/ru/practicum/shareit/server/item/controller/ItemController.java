@@ -1,11 +1,18 @@
 package ru.practicum.shareit.server.item.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.server.booking.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.server.common.Etags;
 import ru.practicum.shareit.server.item.dto.*;
 import ru.practicum.shareit.server.item.service.ItemService;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 
 @RestController
 @RequestMapping("/items")
@@ -23,6 +30,15 @@ public class ItemController {
         return itemService.createItem(newItem, userId);
     }
 
+    @PostMapping("/batch")
+    public List<ItemBatchResultDto> saveItems(
+            @RequestBody
+            List<ItemBatchRequestDto> rows,
+            @RequestHeader("X-Sharer-User-Id")
+            Long userId) {
+        return itemService.saveItems(rows, userId);
+    }
+
     @PatchMapping("/{itemId}")
     public ItemResponseDto updateItem(
             @PathVariable long itemId,
@@ -34,18 +50,42 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ItemWithCommentsResponseDto getItem(
+    public ResponseEntity<ItemWithCommentsResponseDto> getItem(
             @PathVariable
             Long itemId,
             @RequestHeader("X-Sharer-User-Id")
-            Long userId) {
-        return itemService.getItemById(itemId, userId);
+            Long userId,
+            @RequestParam(defaultValue = "0")
+            Integer from,
+            @RequestParam(defaultValue = "20")
+            Integer size,
+            HttpServletRequest request) {
+        return Etags.ifNoneMatch(request, itemService.getItemByIdEtag(itemId, userId, from, size),
+                () -> itemService.getItemById(itemId, userId, from, size));
     }
 
     @GetMapping
-    public Collection<ItemWithCommentsResponseDto> getItemsByUser(@RequestHeader("X-Sharer-User-Id")
-                                                                  Long userId) {
-        return itemService.getItemsByUser(userId);
+    public ResponseEntity<Collection<ItemWithCommentsResponseDto>> getItemsByUser(
+            @RequestHeader("X-Sharer-User-Id")
+            Long userId,
+            HttpServletRequest request) {
+        return Etags.ifNoneMatch(request, itemService.getItemsByUserEtag(userId),
+                () -> itemService.getItemsByUser(userId));
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(
+            @PathVariable
+            Long itemId,
+            @RequestHeader("X-Sharer-User-Id")
+            Long userId,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime from,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime to) {
+        return itemService.getAvailability(itemId, userId, from, to);
     }
 
     @GetMapping("/search")
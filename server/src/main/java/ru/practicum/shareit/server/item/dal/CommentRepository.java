@@ -3,15 +3,34 @@ package ru.practicum.shareit.server.item.dal;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.server.common.VersionStamp;
+import ru.practicum.shareit.server.item.dto.CommentResponseDto;
 import ru.practicum.shareit.server.item.model.Comment;
 
-import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-    Collection<Comment> findAllByItemId(Long id);
+    // Версия автора входит в сводку, потому что его имя попадает в CommentResponseDto
+    String STAMP = "SELECT new ru.practicum.shareit.server.common.VersionStamp(COUNT(c), MAX(c.id), SUM(COALESCE(u.version, 0))) " +
+                   "FROM Comment c LEFT JOIN User u ON u.id = c.authorId ";
+
+    @Query("SELECT new ru.practicum.shareit.server.item.dto.CommentResponseDto(" +
+           "c.id, c.text, COALESCE(u.name, 'Unknown User'), c.created) " +
+           "FROM Comment c LEFT JOIN User u ON u.id = c.authorId " +
+           "WHERE c.itemId = :itemId " +
+           "ORDER BY c.created DESC, c.id DESC " +
+           "LIMIT :size OFFSET :from")
+    List<CommentResponseDto> findCommentsWithAuthorByItemId(@Param("itemId") Long itemId,
+                                                            @Param("from") int from,
+                                                            @Param("size") int size);
 
     @Query("SELECT c FROM Comment c WHERE c.itemId IN :itemIds ORDER BY c.created DESC")
     List<Comment> findAllCommentsByItemIdsOrderByDesc(@Param("itemIds") List<Long> itemIds);
+
+    @Query(STAMP + "WHERE c.itemId = :itemId")
+    VersionStamp getItemStamp(@Param("itemId") Long itemId);
+
+    @Query(STAMP + "WHERE c.itemId IN (SELECT i.id FROM Item i WHERE i.owner = :ownerId)")
+    VersionStamp getOwnerItemsStamp(@Param("ownerId") Long ownerId);
 }
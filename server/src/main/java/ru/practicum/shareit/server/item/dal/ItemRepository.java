@@ -1,27 +1,50 @@
 package ru.practicum.shareit.server.item.dal;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.server.common.VersionStamp;
 import ru.practicum.shareit.server.item.model.Item;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
+    String STAMP = "SELECT new ru.practicum.shareit.server.common.VersionStamp(COUNT(i), MAX(i.id), SUM(i.version)) FROM Item i ";
+
     Optional<Item> getItemById(Long itemId);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id = :itemId")
+    Optional<Item> lockById(@Param("itemId") Long itemId);
+
     Collection<Item> findByOwner(Long ownerId);
 
+    // LOWER(name) и LOWER(description) покрыты триграммными GIN-индексами из миграции V2 (db/migration/postgresql)
     @Query("SELECT i FROM Item i WHERE " +
            "(LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) OR " +
            "LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%'))) " +
            "AND i.available = true")
     Collection<Item> searchItems(@Param("text") String text);
 
+    List<Item> findByAvailableTrueAndIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
     Collection<Item> findAllByRequestIn(Collection<Long> requests);
 
     Collection<Item> findAllByRequestIn(Set<Long> collect);
+
+    @Query(STAMP + "WHERE i.owner = :ownerId")
+    VersionStamp getOwnerStamp(@Param("ownerId") Long ownerId);
+
+    @Query(STAMP + "WHERE i.id = :itemId")
+    VersionStamp getItemStamp(@Param("itemId") Long itemId);
+
+    @Query(STAMP + "WHERE i.request = :requestId")
+    VersionStamp getRequestItemsStamp(@Param("requestId") Long requestId);
 }
@@ -1,10 +1,14 @@
 package ru.practicum.shareit.server.item.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class CommentResponseDto {
 
     private Long id;
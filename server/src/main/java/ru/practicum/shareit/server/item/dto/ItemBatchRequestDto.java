@@ -0,0 +1,17 @@
+package ru.practicum.shareit.server.item.dto;
+
+import lombok.Data;
+
+/**
+ * Строка пакетной загрузки: без id создает вещь, с id обновляет вещь владельца
+ * теми полями, что заданы.
+ */
+@Data
+public class ItemBatchRequestDto {
+
+    private Long id;
+    private String name;
+    private String description;
+    private Boolean available;
+    private Long requestId;
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.server.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemBatchResultDto {
+
+    private int index;
+    private Status status;
+    private ItemResponseDto item;
+    private String error;
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        FAILED
+    }
+}
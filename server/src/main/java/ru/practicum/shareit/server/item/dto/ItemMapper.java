@@ -23,6 +23,18 @@ public class ItemMapper {
         return item;
     }
 
+    public static Item toItem(ItemBatchRequestDto row) {
+
+        Item item = new Item();
+
+        item.setName(row.getName());
+        item.setDescription(row.getDescription());
+        item.setAvailable(row.getAvailable());
+        item.setRequest(row.getRequestId());
+
+        return item;
+    }
+
     public static ItemInRequestResponseDto toItemInRequestResponseDto(Item item) {
 
         ItemInRequestResponseDto dto = new ItemInRequestResponseDto();
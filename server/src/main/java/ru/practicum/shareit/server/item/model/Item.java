@@ -9,7 +9,8 @@ import lombok.Data;
 public class Item {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_seq")
+    @SequenceGenerator(name = "item_seq", sequenceName = "item_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -27,4 +28,8 @@ public class Item {
 
     @Column(name = "request_id")
     private Long request;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.server.item.search;
+
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.server.item.dal.ItemRepository;
+import ru.practicum.shareit.server.item.model.Item;
+
+import java.util.Collection;
+
+@Component
+@ConditionalOnProperty(name = "shareit.item-search.engine", havingValue = "database", matchIfMissing = true)
+@AllArgsConstructor
+public class DatabaseItemSearchEngine implements ItemSearchEngine {
+
+    private final ItemRepository repository;
+
+    @Override
+    public Collection<Item> search(String text) {
+        return repository.searchItems(text);
+    }
+
+    @Override
+    public void onItemSaved(Item item) {
+    }
+
+    @Override
+    public void onOwnerDeleted(Long ownerId) {
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.server.item.search;
+
+import ru.practicum.shareit.server.item.model.Item;
+
+import java.util.Collection;
+
+public interface ItemSearchEngine {
+
+    Collection<Item> search(String text);
+
+    void onItemSaved(Item item);
+
+    void onOwnerDeleted(Long ownerId);
+}
@@ -0,0 +1,202 @@
+package ru.practicum.shareit.server.item.search;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.server.item.dal.ItemRepository;
+import ru.practicum.shareit.server.item.model.Item;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Триграммный инвертированный индекс доступных вещей в памяти сервера.
+ * Кандидаты из пересечения списков триграмм перепроверяются по тексту,
+ * поэтому семантика совпадает с LOWER(...) LIKE '%text%'.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.item-search.engine", havingValue = "memory")
+@RequiredArgsConstructor
+public class ItemSearchIndex implements ItemSearchEngine {
+
+    private static final int GRAM_LENGTH = 3;
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final ItemRepository repository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<Long, IndexedItem> documents = new HashMap<>();
+
+    @PostConstruct
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+
+            long lastId = 0;
+            List<Item> batch;
+            do {
+                batch = repository.findByAvailableTrueAndIdGreaterThanOrderByIdAsc(lastId,
+                        Limit.of(LOAD_BATCH_SIZE));
+                for (Item item : batch) {
+                    addDocument(IndexedItem.of(item));
+                    lastId = item.getId();
+                }
+            } while (batch.size() == LOAD_BATCH_SIZE);
+
+            postings.values().forEach(PostingList::trimToSize);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Item search index built: {} items, {} trigrams", documents.size(), postings.size());
+    }
+
+    @Override
+    public Collection<Item> search(String text) {
+        String query = text.toLowerCase(Locale.ROOT);
+
+        lock.readLock().lock();
+        try {
+            if (query.length() < GRAM_LENGTH) {
+                return documents.values().stream()
+                        .filter(document -> document.matches(query))
+                        .map(IndexedItem::toItem)
+                        .toList();
+            }
+
+            long[] candidates = findCandidates(query);
+            List<Item> result = new ArrayList<>();
+            for (long id : candidates) {
+                IndexedItem document = documents.get(id);
+                if (document.matches(query)) {
+                    result.add(document.toItem());
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void onItemSaved(Item item) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(item.getId());
+            if (Boolean.TRUE.equals(item.getAvailable())) {
+                addDocument(IndexedItem.of(item));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onOwnerDeleted(Long ownerId) {
+        lock.writeLock().lock();
+        try {
+            List<Long> ownerItems = documents.values().stream()
+                    .filter(document -> document.owner() == ownerId)
+                    .map(IndexedItem::id)
+                    .toList();
+            ownerItems.forEach(this::removeDocument);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private long[] findCandidates(String query) {
+        List<PostingList> lists = new ArrayList<>();
+        for (String gram : trigrams(query)) {
+            PostingList list = postings.get(gram);
+            if (list == null) {
+                return new long[0];
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(PostingList::size));
+
+        long[] candidates = lists.getFirst().toArray();
+        for (int i = 1; i < lists.size() && candidates.length > 0; i++) {
+            candidates = lists.get(i).retainAll(candidates);
+        }
+        return candidates;
+    }
+
+    private void addDocument(IndexedItem document) {
+        documents.put(document.id(), document);
+        for (String gram : document.grams()) {
+            postings.computeIfAbsent(gram, key -> new PostingList()).add(document.id());
+        }
+    }
+
+    private void removeDocument(long id) {
+        IndexedItem document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (String gram : document.grams()) {
+            PostingList list = postings.get(gram);
+            if (list != null) {
+                list.remove(id);
+                if (list.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static Set<String> trigrams(String text) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            result.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return result;
+    }
+
+    private static boolean containsIgnoreCase(String text, String lowerCaseQuery) {
+        int last = text.length() - lowerCaseQuery.length();
+        for (int i = 0; i <= last; i++) {
+            if (text.regionMatches(true, i, lowerCaseQuery, 0, lowerCaseQuery.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record IndexedItem(long id, String name, String description, long owner, Long request) {
+
+        static IndexedItem of(Item item) {
+            return new IndexedItem(item.getId(), item.getName(), item.getDescription(),
+                    item.getOwner(), item.getRequest());
+        }
+
+        boolean matches(String lowerCaseQuery) {
+            return containsIgnoreCase(name, lowerCaseQuery) || containsIgnoreCase(description, lowerCaseQuery);
+        }
+
+        Set<String> grams() {
+            Set<String> result = trigrams(name.toLowerCase(Locale.ROOT));
+            result.addAll(trigrams(description.toLowerCase(Locale.ROOT)));
+            return result;
+        }
+
+        Item toItem() {
+            Item item = new Item();
+            item.setId(id);
+            item.setName(name);
+            item.setDescription(description);
+            item.setAvailable(true);
+            item.setOwner(owner);
+            item.setRequest(request);
+            return item;
+        }
+    }
+}
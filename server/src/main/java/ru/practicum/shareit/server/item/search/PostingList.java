@@ -0,0 +1,93 @@
+package ru.practicum.shareit.server.item.search;
+
+import java.util.Arrays;
+
+/**
+ * Отсортированный список id вещей без повторов на примитивном long[].
+ */
+class PostingList {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int size;
+
+    void add(long id) {
+        if (size > 0 && ids[size - 1] >= id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            insertAt(-position - 1, id);
+            return;
+        }
+        ensureCapacity();
+        ids[size++] = id;
+    }
+
+    void remove(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+    }
+
+    boolean contains(long id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void trimToSize() {
+        if (ids.length > size) {
+            ids = Arrays.copyOf(ids, Math.max(size, 1));
+        }
+    }
+
+    long[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * Оставляет в отсортированном массиве candidates только id из этого списка.
+     */
+    long[] retainAll(long[] candidates) {
+        long[] result = new long[Math.min(candidates.length, size)];
+        int count = 0;
+        int from = 0;
+        for (long candidate : candidates) {
+            int position = Arrays.binarySearch(ids, from, size, candidate);
+            if (position >= 0) {
+                result[count++] = candidate;
+                from = position + 1;
+            } else {
+                from = -position - 1;
+            }
+            if (from == size) {
+                break;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private void insertAt(int position, long id) {
+        ensureCapacity();
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        ids[position] = id;
+        size++;
+    }
+
+    private void ensureCapacity() {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length + (ids.length >> 1) + 1);
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package ru.practicum.shareit.server.item.service;
 
+import ru.practicum.shareit.server.booking.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.server.item.dto.*;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 
 public interface ItemService {
 
@@ -10,10 +13,18 @@ public interface ItemService {
 
     ItemResponseDto updateItem(Long itemId, ItemUpdateRequestDto itemDataToUpdate, Long userId);
 
-    ItemWithCommentsResponseDto getItemById(Long itemId, Long userId);
+    List<ItemBatchResultDto> saveItems(List<ItemBatchRequestDto> rows, Long ownerId);
+
+    ItemWithCommentsResponseDto getItemById(Long itemId, Long userId, Integer from, Integer size);
+
+    String getItemByIdEtag(Long itemId, Long userId, Integer from, Integer size);
 
     Collection<ItemWithCommentsResponseDto> getItemsByUser(Long userId);
 
+    String getItemsByUserEtag(Long userId);
+
+    ItemAvailabilityDto getAvailability(Long itemId, Long userId, LocalDateTime from, LocalDateTime to);
+
     Collection<ItemResponseDto> searchItems(String searchString);
 
     CommentResponseDto addComment(CommentRequestDto dto, Long itemId, Long userId);
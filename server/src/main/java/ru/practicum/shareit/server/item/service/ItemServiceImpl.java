@@ -1,9 +1,21 @@
 package ru.practicum.shareit.server.item.service;
 
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.server.booking.dto.BusyIntervalDto;
+import ru.practicum.shareit.server.booking.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.server.booking.dto.ItemBookingDatesDto;
 import ru.practicum.shareit.server.booking.model.Booking;
+import ru.practicum.shareit.server.booking.model.BookingStatus;
 import ru.practicum.shareit.server.booking.repository.BookingRepository;
+import ru.practicum.shareit.server.booking.service.BusyCalendar;
+import ru.practicum.shareit.server.common.Etags;
+import ru.practicum.shareit.server.common.ExistenceChecker;
+import ru.practicum.shareit.server.common.VersionStamp;
+import ru.practicum.shareit.server.events.ResourceChangedEvent;
 import ru.practicum.shareit.server.exception.ForbiddenException;
 import ru.practicum.shareit.server.exception.NotFoundException;
 import ru.practicum.shareit.server.exception.ValidationException;
@@ -12,8 +24,7 @@ import ru.practicum.shareit.server.item.dal.ItemRepository;
 import ru.practicum.shareit.server.item.dto.*;
 import ru.practicum.shareit.server.item.model.Comment;
 import ru.practicum.shareit.server.item.model.Item;
-import ru.practicum.shareit.server.request.model.Request;
-import ru.practicum.shareit.server.request.repository.RequestRepository;
+import ru.practicum.shareit.server.item.search.ItemSearchEngine;
 import ru.practicum.shareit.server.user.dto.UserMapper;
 import ru.practicum.shareit.server.user.model.User;
 import ru.practicum.shareit.server.user.repository.UserRepository;
@@ -21,41 +32,54 @@ import ru.practicum.shareit.server.user.service.UserService;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
 public class ItemServiceImpl implements ItemService {
 
+    private static final int MAX_COMMENTS_PAGE_SIZE = 100;
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final int MAX_TEXT_LENGTH = 255;
+    private static final int DEFAULT_CALENDAR_DAYS = 30;
+    private static final int MAX_CALENDAR_DAYS = 366;
     private final ItemRepository repository;
     private final UserService userService;
     private final UserRepository userRepository;
     private final CommentRepository commentRepository;
     private final BookingRepository bookingRepository;
-    private final RequestRepository requestRepository;
+    private final ExistenceChecker existenceChecker;
+    private final ItemSearchEngine searchEngine;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate transactionTemplate;
+    private final BusyCalendar calendar;
 
     @Override
     public ItemResponseDto createItem(ItemRequestDto newItemDto, Long ownerId) {
 
-        userService.getUserById(ownerId);
+        checkUser(ownerId);
 
-        if (newItemDto.getRequestId() != null) {
-            Optional<Request> maybeRequest = requestRepository.getRequestById(newItemDto.getRequestId());
-            if (maybeRequest.isEmpty()) {
-                throw new NotFoundException("Request with id=" + newItemDto.getRequestId() + " not found");
-            }
+        if (newItemDto.getRequestId() != null && !existenceChecker.requestExists(newItemDto.getRequestId())) {
+            throw new NotFoundException("Request with id=" + newItemDto.getRequestId() + " not found");
         }
 
         Item newItem = ItemMapper.toItem(newItemDto);
         newItem.setOwner(ownerId);
 
-        return ItemMapper.toItemResponseDto(repository.save(newItem));
+        Item savedItem = repository.save(newItem);
+        searchEngine.onItemSaved(savedItem);
+        if (savedItem.getRequest() != null) {
+            events.publishEvent(ResourceChangedEvent.request(savedItem.getRequest()));
+        }
+
+        return ItemMapper.toItemResponseDto(savedItem);
     }
 
     @Override
     public ItemResponseDto updateItem(Long itemId, ItemUpdateRequestDto itemDataToUpdate, Long userId) {
 
-        userService.getUserById(userId);
+        checkUser(userId);
 
         Item existingItem = checkAndGetItemById(itemId);
 
@@ -63,36 +87,156 @@ public class ItemServiceImpl implements ItemService {
             throw new ForbiddenException("Only owner can update item id=" + itemId);
         }
 
-        if (itemDataToUpdate.getName() != null) {
-            existingItem.setName(itemDataToUpdate.getName());
+        applyUpdate(existingItem, itemDataToUpdate.getName(), itemDataToUpdate.getDescription(),
+                itemDataToUpdate.getAvailable());
+
+        Item savedItem = repository.save(existingItem);
+        searchEngine.onItemSaved(savedItem);
+        events.publishEvent(ResourceChangedEvent.item(itemId));
+
+        return ItemMapper.toItemResponseDto(savedItem);
+    }
+
+    /**
+     * Владелец и все requestId проверяются одним запросом на пакет, обновляемые
+     * вещи читаются одним IN. Строки с ошибками пропускаются, остальные
+     * сохраняются в одной транзакции: id новых вещей берутся из пула
+     * последовательности, и INSERT/UPDATE уходят JDBC-батчами.
+     */
+    @Override
+    public List<ItemBatchResultDto> saveItems(List<ItemBatchRequestDto> rows, Long ownerId) {
+
+        checkUser(ownerId);
+
+        if (rows == null || rows.isEmpty() || rows.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("Batch must contain from 1 to " + MAX_BATCH_SIZE + " items");
+        }
+
+        Set<Long> existingRequests = existenceChecker.existingRequests(rows.stream()
+                .filter(row -> row.getId() == null && row.getRequestId() != null)
+                .map(ItemBatchRequestDto::getRequestId)
+                .collect(Collectors.toSet()));
+
+        ItemBatchResultDto[] results = new ItemBatchResultDto[rows.size()];
+        List<Integer> positions = new ArrayList<>(rows.size());
+
+        List<Item> savedItems = transactionTemplate.execute(status -> {
+            Map<Long, Item> itemsToUpdate = repository.findAllById(rows.stream()
+                            .map(ItemBatchRequestDto::getId)
+                            .filter(Objects::nonNull)
+                            .collect(Collectors.toSet()))
+                    .stream()
+                    .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+            List<Item> items = new ArrayList<>(rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                ItemBatchRequestDto row = rows.get(i);
+                String error = row.getId() == null
+                        ? checkNewRow(row, existingRequests)
+                        : checkUpdateRow(row, itemsToUpdate.get(row.getId()), ownerId);
+
+                if (error != null) {
+                    results[i] = new ItemBatchResultDto(i, ItemBatchResultDto.Status.FAILED, null, error);
+                    continue;
+                }
+
+                Item item;
+                if (row.getId() == null) {
+                    item = ItemMapper.toItem(row);
+                    item.setOwner(ownerId);
+                } else {
+                    item = itemsToUpdate.get(row.getId());
+                    applyUpdate(item, row.getName(), row.getDescription(), row.getAvailable());
+                }
+                items.add(item);
+                positions.add(i);
+            }
+
+            return repository.saveAll(items);
+        });
+
+        for (int i = 0; i < savedItems.size(); i++) {
+            Item item = savedItems.get(i);
+            int position = positions.get(i);
+            boolean created = rows.get(position).getId() == null;
+
+            results[position] = new ItemBatchResultDto(position,
+                    created ? ItemBatchResultDto.Status.CREATED : ItemBatchResultDto.Status.UPDATED,
+                    ItemMapper.toItemResponseDto(item), null);
+
+            searchEngine.onItemSaved(item);
+            if (!created) {
+                events.publishEvent(ResourceChangedEvent.item(item.getId()));
+            } else if (item.getRequest() != null) {
+                events.publishEvent(ResourceChangedEvent.request(item.getRequest()));
+            }
+        }
+
+        return Arrays.asList(results);
+    }
+
+    private static String checkNewRow(ItemBatchRequestDto row, Set<Long> existingRequests) {
+        if (row.getName() == null || row.getDescription() == null || row.getAvailable() == null) {
+            return "name, description and available are required for a new item";
         }
+        if (row.getRequestId() != null && !existingRequests.contains(row.getRequestId())) {
+            return "Request with id=" + row.getRequestId() + " not found";
+        }
+        return checkText(row);
+    }
 
-        if (itemDataToUpdate.getDescription() != null) {
-            existingItem.setDescription(itemDataToUpdate.getDescription());
+    private static String checkUpdateRow(ItemBatchRequestDto row, Item item, Long ownerId) {
+        if (item == null) {
+            return "Item with id=" + row.getId() + " not found";
         }
+        if (!item.getOwner().equals(ownerId)) {
+            return "Only owner can update item id=" + row.getId();
+        }
+        if (row.getRequestId() != null) {
+            return "requestId can be set only for a new item";
+        }
+        return checkText(row);
+    }
 
-        if (itemDataToUpdate.getAvailable() != null) {
-            existingItem.setAvailable(itemDataToUpdate.getAvailable());
+    private static String checkText(ItemBatchRequestDto row) {
+        if (row.getName() != null && (row.getName().isBlank() || row.getName().length() > MAX_TEXT_LENGTH)) {
+            return "name must be non-blank and at most " + MAX_TEXT_LENGTH + " characters";
         }
+        if (row.getDescription() != null
+                && (row.getDescription().isBlank() || row.getDescription().length() > MAX_TEXT_LENGTH)) {
+            return "description must be non-blank and at most " + MAX_TEXT_LENGTH + " characters";
+        }
+        return null;
+    }
 
-        return ItemMapper.toItemResponseDto(repository.save(existingItem));
+    private static void applyUpdate(Item item, String name, String description, Boolean available) {
+        if (name != null) {
+            item.setName(name);
+        }
+
+        if (description != null) {
+            item.setDescription(description);
+        }
+
+        if (available != null) {
+            item.setAvailable(available);
+        }
     }
 
     @Override
-    public ItemWithCommentsResponseDto getItemById(Long itemId, Long userId) {
+    @Transactional(readOnly = true)
+    public ItemWithCommentsResponseDto getItemById(Long itemId, Long userId, Integer from, Integer size) {
 
-        Optional<User> maybeUser = userRepository.getUserById(userId);
-        if (maybeUser.isEmpty()) {
-            throw new NotFoundException("User with id=" + userId + " not found");
-        }
-        User user = maybeUser.get();
+        checkCommentsPage(from, size);
+
+        checkUser(userId);
 
         Item item = checkAndGetItemById(itemId);
 
         LocalDateTime nextBookingDate = null;
         LocalDateTime lastBookingDate = null;
 
-        if (user.getId().equals(item.getOwner())) {
+        if (userId.equals(item.getOwner())) {
             Booking lastBooking = getLatestPastBooking(item);
             Booking nextBooking = getUpcomingBooking(item);
 
@@ -105,11 +249,28 @@ public class ItemServiceImpl implements ItemService {
             }
         }
 
-        List<CommentResponseDto> comments = getCommentsWithAuthors(item);
+        List<CommentResponseDto> comments = commentRepository.findCommentsWithAuthorByItemId(itemId, from, size);
 
         return ItemMapper.toItemWithCommentsResponseDto(item, lastBookingDate, nextBookingDate, comments);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public String getItemByIdEtag(Long itemId, Long userId, Integer from, Integer size) {
+        checkCommentsPage(from, size);
+        checkUser(userId);
+
+        VersionStamp itemStamp = repository.getItemStamp(itemId);
+        if (itemStamp.rows() == 0) {
+            throw new NotFoundException("Item with id=" + itemId + " not found");
+        }
+
+        return Etags.strong(itemId, userId, from, size,
+                itemStamp,
+                bookingRepository.getItemDatesStamp(itemId, LocalDateTime.now()),
+                commentRepository.getItemStamp(itemId));
+    }
+
     private Booking getLatestPastBooking(Item item) {
         return bookingRepository
                 .findTopByItemIdAndEndBeforeOrderByEndDesc(item.getId(), LocalDateTime.now())
@@ -122,27 +283,20 @@ public class ItemServiceImpl implements ItemService {
                 .orElse(null);
     }
 
-    private List<CommentResponseDto> getCommentsWithAuthors(Item item) {
-        return commentRepository
-                .findAllByItemId(item.getId())
-                .stream()
-                .map(comment -> {
-                    String authorName = getUserFullName(comment.getAuthorId());
-                    return ItemMapper.toCommentResponseDto(comment, authorName);
-                })
-                .toList();
-    }
-
-    private String getUserFullName(Long userId) {
-        return userRepository.findById(userId)
-                .map(User::getName)
-                .orElse("Unknown User");
+    private void checkCommentsPage(Integer from, Integer size) {
+        if (from == null || from < 0) {
+            throw new ValidationException("Comments offset must not be negative");
+        }
+        if (size == null || size < 1 || size > MAX_COMMENTS_PAGE_SIZE) {
+            throw new ValidationException("Comments page size must be between 1 and " + MAX_COMMENTS_PAGE_SIZE);
+        }
     }
 
 
     @Override
+    @Transactional(readOnly = true)
     public Collection<ItemWithCommentsResponseDto> getItemsByUser(Long userId) {
-        userService.getUserById(userId);
+        checkUser(userId);
 
         Collection<Item> itemsByOwner = repository.findByOwner(userId);
 
@@ -150,7 +304,10 @@ public class ItemServiceImpl implements ItemService {
                 .map(Item::getId)
                 .toList();
 
-        List<Booking> bookings = bookingRepository.findApprovedBookingsByItemIdsOrderByDesc(itemIds);
+        Map<Long, ItemBookingDatesDto> bookingDates = bookingRepository
+                .findApprovedBookingDatesByItemIds(itemIds, LocalDateTime.now())
+                .stream()
+                .collect(Collectors.toMap(ItemBookingDatesDto::getItemId, Function.identity()));
 
         List<Comment> comments = commentRepository.findAllCommentsByItemIdsOrderByDesc(itemIds);
 
@@ -162,42 +319,14 @@ public class ItemServiceImpl implements ItemService {
         Map<Long, String> userNamesMap = users.stream()
                 .collect(Collectors.toMap(User::getId, User::getName));
 
-        Map<Long, List<Booking>> itemsBooking = bookings.stream()
-                .collect(Collectors.groupingBy(b -> b.getItem().getId()));
-
         Map<Long, List<Comment>> itemsComments = comments.stream()
                 .collect(Collectors.groupingBy(Comment::getItemId));
 
         return itemsByOwner.stream()
                 .map(item -> {
-                    List<Booking> itemBookings = itemsBooking.getOrDefault(item.getId(), Collections.emptyList());
+                    ItemBookingDatesDto dates = bookingDates.get(item.getId());
                     List<Comment> itemComments = itemsComments.getOrDefault(item.getId(), Collections.emptyList());
 
-                    LocalDateTime lastBooking = null;
-                    LocalDateTime nextBooking = null;
-
-                    if (!itemBookings.isEmpty()) {
-                        LocalDateTime now = LocalDateTime.now();
-
-                        List<Booking> futureBookings = itemBookings.stream()
-                                .filter(b -> b.getStart().isAfter(now))
-                                .sorted(Comparator.comparing(Booking::getStart))
-                                .toList();
-
-                        List<Booking> pastBookings = itemBookings.stream()
-                                .filter(b -> b.getEnd().isBefore(now))
-                                .sorted(Comparator.comparing(Booking::getEnd).reversed())
-                                .toList();
-
-                        if (!pastBookings.isEmpty()) {
-                            lastBooking = pastBookings.getFirst().getEnd();
-                        }
-
-                        if (!futureBookings.isEmpty()) {
-                            nextBooking = futureBookings.getFirst().getStart();
-                        }
-                    }
-
                     List<CommentResponseDto> commentsDto = itemComments.stream()
                             .map(comment ->
                                     ItemMapper.toCommentResponseDto(comment, userNamesMap.get(comment.getAuthorId())))
@@ -205,18 +334,59 @@ public class ItemServiceImpl implements ItemService {
 
                     return ItemMapper.toItemWithCommentsResponseDto(
                             item,
-                            lastBooking,
-                            nextBooking,
+                            dates != null ? dates.getLastBooking() : null,
+                            dates != null ? dates.getNextBooking() : null,
                             commentsDto);
                 })
                 .collect(Collectors.toList());
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public String getItemsByUserEtag(Long userId) {
+        checkUser(userId);
+
+        return Etags.strong(userId,
+                repository.getOwnerStamp(userId),
+                bookingRepository.getOwnerItemsDatesStamp(userId, LocalDateTime.now()),
+                commentRepository.getOwnerItemsStamp(userId));
+    }
+
+    /**
+     * Прошедшее время занятым не считается: начало окна не раньше текущего момента.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ItemAvailabilityDto getAvailability(Long itemId, Long userId, LocalDateTime from, LocalDateTime to) {
+
+        checkUser(userId);
+
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        LocalDateTime windowStart = from == null || from.isBefore(now) ? now : from;
+        LocalDateTime windowEnd = to == null ? windowStart.plusDays(DEFAULT_CALENDAR_DAYS) : to;
+
+        if (!windowEnd.isAfter(windowStart) || windowEnd.isAfter(windowStart.plusDays(MAX_CALENDAR_DAYS))) {
+            throw new ValidationException("Availability window must end after its start and span at most "
+                    + MAX_CALENDAR_DAYS + " days");
+        }
+
+        List<BusyIntervalDto> busy = calendar.busy(itemId, windowStart, windowEnd);
+        if (busy == null) {
+            throw new NotFoundException("Item with id=" + itemId + " not found");
+        }
+
+        return new ItemAvailabilityDto(itemId, windowStart, windowEnd, busy);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Collection<ItemResponseDto> searchItems(String searchString) {
 
+        if (searchString == null || searchString.isBlank()) {
+            return List.of();
+        }
 
-        return repository.searchItems(searchString).stream()
+        return searchEngine.search(searchString).stream()
                 .map(ItemMapper::toItemResponseDto)
                 .collect(Collectors.toSet());
     }
@@ -233,9 +403,8 @@ public class ItemServiceImpl implements ItemService {
             throw new ValidationException("Can't comment without booking ends");
         }
 
-        if (bookingRepository.findPastBookings(user).stream()
-                .filter(booking -> booking.getItem().getId().equals(itemId))
-                .findFirst().isEmpty()) {
+        if (!bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(
+                userId, itemId, BookingStatus.APPROVED, LocalDateTime.now())) {
             throw new ValidationException("Only user who booked item can add comment");
         }
 
@@ -246,10 +415,17 @@ public class ItemServiceImpl implements ItemService {
         comment.setCreated(LocalDateTime.now());
 
         commentRepository.save(comment);
+        events.publishEvent(ResourceChangedEvent.item(itemId));
 
         return ItemMapper.toCommentResponseDto(comment, user.getName());
     }
 
+    private void checkUser(Long userId) {
+        if (!existenceChecker.userExists(userId)) {
+            throw new NotFoundException("User with id=" + userId + " not found");
+        }
+    }
+
     private Item checkAndGetItemById(Long itemId) {
         return repository.getItemById(itemId)
                 .orElseThrow(() -> new NotFoundException("Item with id=" + itemId + " not found"));
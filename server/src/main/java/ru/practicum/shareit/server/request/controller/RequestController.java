@@ -1,7 +1,10 @@
 package ru.practicum.shareit.server.request.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.server.common.Etags;
 import ru.practicum.shareit.server.request.dto.RequestRequestDto;
 import ru.practicum.shareit.server.request.dto.RequestResponseDto;
 import ru.practicum.shareit.server.request.dto.RequestWithItemsResponseDto;
@@ -46,11 +49,13 @@ public class RequestController {
     }
 
     @GetMapping("/{requestId}")
-    public RequestWithItemsResponseDto getRequestById(
+    public ResponseEntity<RequestWithItemsResponseDto> getRequestById(
             @PathVariable
-            Long requestId) {
+            Long requestId,
+            HttpServletRequest request) {
 
-        return requestService.getRequestById(requestId);
+        return Etags.ifNoneMatch(request, requestService.getRequestByIdEtag(requestId),
+                () -> requestService.getRequestById(requestId));
 
     }
 }
\ No newline at end of file
@@ -11,7 +11,8 @@ import java.time.LocalDateTime;
 public class Request {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "request_seq")
+    @SequenceGenerator(name = "request_seq", sequenceName = "request_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -24,4 +25,8 @@ public class Request {
     @Column(name = "created", nullable = false)
     private LocalDateTime created;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
 }
@@ -1,11 +1,15 @@
 package ru.practicum.shareit.server.request.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.server.common.VersionStamp;
 import ru.practicum.shareit.server.item.model.Item;
 import ru.practicum.shareit.server.request.model.Request;
 
 import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
 public interface RequestRepository extends JpaRepository<Request, Long> {
     Collection<Request> findAllByRequestorOrderByCreated(Long requestor);
@@ -15,4 +19,10 @@ public interface RequestRepository extends JpaRepository<Request, Long> {
     Collection<Request> findAllByRequestorIsNot(Long requestor);
 
     Optional<Request> getRequestById(Long id);
+
+    @Query("SELECT r.id FROM Request r WHERE r.id IN :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new ru.practicum.shareit.server.common.VersionStamp(COUNT(r), MAX(r.id), SUM(r.version)) FROM Request r WHERE r.id = :requestId")
+    VersionStamp getRequestStamp(@Param("requestId") Long requestId);
 }
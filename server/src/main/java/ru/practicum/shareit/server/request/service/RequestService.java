@@ -16,4 +16,6 @@ public interface RequestService {
     Collection<RequestWithItemsResponseDto> getOtherUsersRequests(Long userId);
 
     RequestWithItemsResponseDto getRequestById(Long requestId);
+
+    String getRequestByIdEtag(Long requestId);
 }
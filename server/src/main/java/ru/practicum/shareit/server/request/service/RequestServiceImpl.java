@@ -2,6 +2,10 @@ package ru.practicum.shareit.server.request.service;
 
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.server.common.Etags;
+import ru.practicum.shareit.server.common.ExistenceChecker;
+import ru.practicum.shareit.server.common.VersionStamp;
 import ru.practicum.shareit.server.exception.NotFoundException;
 import ru.practicum.shareit.server.item.dal.ItemRepository;
 import ru.practicum.shareit.server.item.dto.ItemInRequestResponseDto;
@@ -13,7 +17,6 @@ import ru.practicum.shareit.server.request.dto.RequestResponseDto;
 import ru.practicum.shareit.server.request.dto.RequestWithItemsResponseDto;
 import ru.practicum.shareit.server.request.model.Request;
 import ru.practicum.shareit.server.request.repository.RequestRepository;
-import ru.practicum.shareit.server.user.repository.UserRepository;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -24,7 +27,7 @@ public class RequestServiceImpl implements RequestService {
 
     private final RequestRepository requestRepository;
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final ExistenceChecker existenceChecker;
 
     @Override
     public RequestResponseDto createRequest(RequestRequestDto newRequestDto, Long creatorId) {
@@ -38,6 +41,7 @@ public class RequestServiceImpl implements RequestService {
 
 
     @Override
+    @Transactional(readOnly = true)
     public Collection<RequestWithItemsResponseDto> getUserRequests(Long userId) {
 
         checkUser(userId);
@@ -49,6 +53,7 @@ public class RequestServiceImpl implements RequestService {
 
 
     @Override
+    @Transactional(readOnly = true)
     public Collection<RequestWithItemsResponseDto> getOtherUsersRequests(Long userId) {
 
         checkUser(userId);
@@ -59,6 +64,7 @@ public class RequestServiceImpl implements RequestService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public RequestWithItemsResponseDto getRequestById(Long requestId) {
         Request request = requestRepository.getRequestById(requestId)
                 .orElseThrow(() -> new NotFoundException("Request with id=" + requestId + " not found"));
@@ -69,9 +75,22 @@ public class RequestServiceImpl implements RequestService {
                         .collect(Collectors.toSet()));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public String getRequestByIdEtag(Long requestId) {
+        VersionStamp requestStamp = requestRepository.getRequestStamp(requestId);
+        if (requestStamp.rows() == 0) {
+            throw new NotFoundException("Request with id=" + requestId + " not found");
+        }
+
+        return Etags.strong(requestId,
+                requestStamp,
+                itemRepository.getRequestItemsStamp(requestId));
+    }
+
     private void checkUser(Long userId) {
 
-        if (userRepository.getUserById(userId).isEmpty()) {
+        if (!existenceChecker.userExists(userId)) {
             throw new NotFoundException("User with id=" + userId + " not found");
         }
     }
@@ -1,7 +1,10 @@
 package ru.practicum.shareit.server.user.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.server.common.Etags;
 import ru.practicum.shareit.server.user.dto.UserRequestDto;
 import ru.practicum.shareit.server.user.dto.UserResponseDto;
 import ru.practicum.shareit.server.user.service.UserService;
@@ -21,8 +24,9 @@ public class UserController {
     }
 
     @GetMapping("/{userId}")
-    public UserResponseDto getUserById(@PathVariable long userId) {
-        return userService.getUserById(userId);
+    public ResponseEntity<UserResponseDto> getUserById(@PathVariable long userId, HttpServletRequest request) {
+        return Etags.ifNoneMatch(request, userService.getUserByIdEtag(userId),
+                () -> userService.getUserById(userId));
     }
 
 
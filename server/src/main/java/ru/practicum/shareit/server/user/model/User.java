@@ -9,7 +9,8 @@ import lombok.Data;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
+    @SequenceGenerator(name = "user_seq", sequenceName = "user_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -19,4 +20,8 @@ public class User {
     @Column(name = "email")
     private String email;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
 }
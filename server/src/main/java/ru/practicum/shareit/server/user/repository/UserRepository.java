@@ -1,7 +1,12 @@
 package ru.practicum.shareit.server.user.repository;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.server.common.VersionStamp;
+import ru.practicum.shareit.server.config.CacheConfig;
 import ru.practicum.shareit.server.user.model.User;
 
 import java.util.List;
@@ -10,9 +15,13 @@ import java.util.Optional;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    @Cacheable(cacheNames = CacheConfig.USERS_CACHE, unless = "#result == null")
     Optional<User> getUserById(Long userId);
 
     Optional<User> getUserByEmail(String email);
 
     List<User> findByIdIn(List<Long> userIds);
+
+    @Query("SELECT new ru.practicum.shareit.server.common.VersionStamp(COUNT(u), MAX(u.id), SUM(u.version)) FROM User u WHERE u.id = :userId")
+    VersionStamp getUserStamp(@Param("userId") Long userId);
 }
@@ -10,6 +10,8 @@ public interface UserService {
 
     UserResponseDto getUserById(Long userId);
 
+    String getUserByIdEtag(Long userId);
+
 
     UserResponseDto updateUser(UserRequestDto userDataToUpdate, Long userId);
 
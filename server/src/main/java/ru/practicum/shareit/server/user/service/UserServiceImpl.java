@@ -1,9 +1,18 @@
 package ru.practicum.shareit.server.user.service;
 
 import lombok.AllArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.server.booking.service.BusyCalendar;
+import ru.practicum.shareit.server.common.Etags;
+import ru.practicum.shareit.server.common.VersionStamp;
+import ru.practicum.shareit.server.config.CacheConfig;
+import ru.practicum.shareit.server.events.ResourceChangedEvent;
 import ru.practicum.shareit.server.exception.ConflictException;
 import ru.practicum.shareit.server.exception.NotFoundException;
+import ru.practicum.shareit.server.item.search.ItemSearchEngine;
 import ru.practicum.shareit.server.user.dto.UserMapper;
 import ru.practicum.shareit.server.user.dto.UserRequestDto;
 import ru.practicum.shareit.server.user.dto.UserResponseDto;
@@ -17,6 +26,9 @@ import java.util.Optional;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository repository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ApplicationEventPublisher events;
+    private final BusyCalendar calendar;
 
     @Override
     public UserResponseDto createUser(UserRequestDto newUser) {
@@ -28,6 +40,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserResponseDto getUserById(Long userId) {
         User user = checkAndGetUserById(userId);
 
@@ -36,9 +49,23 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public String getUserByIdEtag(Long userId) {
+        VersionStamp stamp = repository.getUserStamp(userId);
+        if (stamp.rows() == 0) {
+            throw new NotFoundException("User with id=" + userId + " not found");
+        }
+        return Etags.strong(userId, stamp);
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, key = "#userId")
     public UserResponseDto updateUser(UserRequestDto userDataToUpdate, Long userId) {
 
-        User existingUser = checkAndGetUserById(userId);
+        // Версия берется из базы, а не из кэша: запись в кэше могла устареть после
+        // изменения на другом экземпляре, и save падал бы с конфликтом версий
+        User existingUser = repository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("User with id=" + userId + " not found"));
 
 
         if (userDataToUpdate.getName() == null) {
@@ -52,15 +79,21 @@ public class UserServiceImpl implements UserService {
         }
 
         User user = UserMapper.toUser(userDataToUpdate, userId);
+        user.setVersion(existingUser.getVersion());
 
         repository.save(user);
+        events.publishEvent(ResourceChangedEvent.user(userId));
 
         return UserMapper.toUserResponseDto(user);
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, key = "#userId")
     public void deleteUser(Long userId) {
         repository.deleteById(userId);
+        itemSearchEngine.onOwnerDeleted(userId);
+        calendar.onUserDeleted();
+        events.publishEvent(ResourceChangedEvent.user(userId));
     }
 
     private User checkAndGetUserById(Long id) {
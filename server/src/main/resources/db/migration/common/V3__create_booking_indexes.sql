@@ -0,0 +1,13 @@
+-- Бронирования арендатора: ALL и листинги по статусу (в т.ч. CURRENT/PAST/FUTURE по APPROVED)
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start ON bookings (booker_id, status, start_date, id);
+
+-- Бронирования владельца: items.owner_id -> bookings.item_id, а также ближайшие бронирования вещи
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_date, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_end ON bookings (item_id, end_date);
+
+-- Остальные внешние ключи, по которым идут выборки
+CREATE INDEX IF NOT EXISTS idx_comments_item_created ON comments (item_id, created);
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+CREATE INDEX IF NOT EXISTS idx_requests_requestor_created ON requests (requestor_id, created);
@@ -0,0 +1,5 @@
+-- Счетчики изменений строк для @Version: по ним сервер строит ETag списков, не собирая сами списки
+ALTER TABLE users ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE requests ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE items ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE bookings ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,19 @@
+-- Фаза бронирования относительно текущего времени: FUTURE -> CURRENT -> PAST. Ее переводит
+-- планировщик server, поэтому листинги CURRENT/PAST/FUTURE выбираются по индексу на равенство
+-- вместо сравнения start_date/end_date с CURRENT_TIMESTAMP по всей истории
+ALTER TABLE bookings ADD COLUMN phase VARCHAR(10) NOT NULL DEFAULT 'FUTURE';
+
+UPDATE bookings
+SET phase = CASE
+                WHEN end_date < CURRENT_TIMESTAMP THEN 'PAST'
+                WHEN start_date <= CURRENT_TIMESTAMP THEN 'CURRENT'
+                ELSE 'FUTURE'
+            END;
+
+-- Листинги арендатора и владельца по статусу и фазе
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_phase_start ON bookings (booker_id, status, phase, start_date, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_phase_start ON bookings (item_id, status, phase, start_date, id);
+
+-- Переходы планировщика: начавшиеся FUTURE и закончившиеся FUTURE/CURRENT
+CREATE INDEX IF NOT EXISTS idx_bookings_phase_start ON bookings (phase, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_phase_end ON bookings (phase, end_date);
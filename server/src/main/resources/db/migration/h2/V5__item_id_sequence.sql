@@ -0,0 +1,5 @@
+-- То же, что postgresql/V5: id вещей из последовательности с шагом 50 вместо IDENTITY.
+-- H2 используется только in-memory, поэтому последовательность начинается с 1
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE IF NOT EXISTS item_seq START WITH 1 INCREMENT BY 50;
+ALTER TABLE items ALTER COLUMN id SET DEFAULT NEXT VALUE FOR item_seq;
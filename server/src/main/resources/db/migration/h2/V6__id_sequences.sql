@@ -0,0 +1,17 @@
+-- То же, что postgresql/V6: id остальных таблиц из последовательностей с шагом 50 вместо IDENTITY
+
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE IF NOT EXISTS user_seq START WITH 1 INCREMENT BY 50;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT NEXT VALUE FOR user_seq;
+
+ALTER TABLE requests ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE IF NOT EXISTS request_seq START WITH 1 INCREMENT BY 50;
+ALTER TABLE requests ALTER COLUMN id SET DEFAULT NEXT VALUE FOR request_seq;
+
+ALTER TABLE bookings ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE IF NOT EXISTS booking_seq START WITH 1 INCREMENT BY 50;
+ALTER TABLE bookings ALTER COLUMN id SET DEFAULT NEXT VALUE FOR booking_seq;
+
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE IF NOT EXISTS comment_seq START WITH 1 INCREMENT BY 50;
+ALTER TABLE comments ALTER COLUMN id SET DEFAULT NEXT VALUE FOR comment_seq;
@@ -0,0 +1,10 @@
+-- Триграммные индексы для поиска вещей по подстроке (LIKE '%text%')
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm
+    ON items USING gin (LOWER(name) gin_trgm_ops)
+    WHERE is_available = TRUE;
+
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm
+    ON items USING gin (LOWER(description) gin_trgm_ops)
+    WHERE is_available = TRUE;
@@ -0,0 +1,8 @@
+-- Id вещей из последовательности с шагом 50 (allocationSize, оптимизатор pooled-lo): Hibernate
+-- выдает id пачками без запроса к базе и может группировать INSERT в JDBC-батчи, что
+-- IDENTITY не позволяет. Вставки мимо Hibernate берут DEFAULT и занимают целый блок
+CREATE SEQUENCE IF NOT EXISTS item_seq INCREMENT BY 50;
+SELECT setval('item_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM items), false);
+ALTER TABLE items ALTER COLUMN id SET DEFAULT nextval('item_seq');
+ALTER SEQUENCE item_seq OWNED BY items.id;
+DROP SEQUENCE IF EXISTS items_id_seq;
@@ -0,0 +1,26 @@
+-- Как в V5 для вещей: id остальных таблиц из последовательностей с шагом 50 (pooled-lo),
+-- чтобы INSERT пользователей, запросов, бронирований и комментариев тоже шли JDBC-батчами
+
+CREATE SEQUENCE IF NOT EXISTS user_seq INCREMENT BY 50;
+SELECT setval('user_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM users), false);
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('user_seq');
+ALTER SEQUENCE user_seq OWNED BY users.id;
+DROP SEQUENCE IF EXISTS users_id_seq;
+
+CREATE SEQUENCE IF NOT EXISTS request_seq INCREMENT BY 50;
+SELECT setval('request_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM requests), false);
+ALTER TABLE requests ALTER COLUMN id SET DEFAULT nextval('request_seq');
+ALTER SEQUENCE request_seq OWNED BY requests.id;
+DROP SEQUENCE IF EXISTS requests_id_seq;
+
+CREATE SEQUENCE IF NOT EXISTS booking_seq INCREMENT BY 50;
+SELECT setval('booking_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM bookings), false);
+ALTER TABLE bookings ALTER COLUMN id SET DEFAULT nextval('booking_seq');
+ALTER SEQUENCE booking_seq OWNED BY bookings.id;
+DROP SEQUENCE IF EXISTS bookings_id_seq;
+
+CREATE SEQUENCE IF NOT EXISTS comment_seq INCREMENT BY 50;
+SELECT setval('comment_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM comments), false);
+ALTER TABLE comments ALTER COLUMN id SET DEFAULT nextval('comment_seq');
+ALTER SEQUENCE comment_seq OWNED BY comments.id;
+DROP SEQUENCE IF EXISTS comments_id_seq;
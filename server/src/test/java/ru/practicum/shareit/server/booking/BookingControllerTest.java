@@ -21,6 +21,7 @@ import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -113,7 +114,7 @@ class BookingControllerTest {
 
     @Test
     void getAllBookingAtState_ReturnsList() throws Exception {
-        when(bookingService.getAllBookingAtState(eq(2L), eq("ALL")))
+        when(bookingService.getAllBookingAtState(eq(2L), eq("ALL"), isNull(), isNull(), eq(20)))
                 .thenReturn(List.of(bookingResponseDto));
 
         mvc.perform(get("/bookings")
@@ -125,7 +126,7 @@ class BookingControllerTest {
 
     @Test
     void getAllOwnerBookingAtState_ReturnsList() throws Exception {
-        when(bookingService.getAllOwnerBookingAtState(eq(1L), eq("ALL")))
+        when(bookingService.getAllOwnerBookingAtState(eq(1L), eq("ALL"), isNull(), isNull(), eq(20)))
                 .thenReturn(List.of(bookingResponseDto));
 
         mvc.perform(get("/bookings/owner")
@@ -134,4 +135,21 @@ class BookingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.size()").value(1));
     }
+
+    @Test
+    void getAllOwnerBookingAtState_PassesCursor() throws Exception {
+        LocalDateTime cursorStart = LocalDateTime.of(2030, 1, 1, 12, 0, 0);
+
+        when(bookingService.getAllOwnerBookingAtState(eq(1L), eq("WAITING"), eq(cursorStart), eq(100L), eq(5)))
+                .thenReturn(List.of(bookingResponseDto));
+
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("state", "WAITING")
+                        .param("cursorStart", "2030-01-01T12:00:00")
+                        .param("cursorId", "100")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(100L));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,144 @@
+package ru.practicum.shareit.server.booking;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.server.booking.dto.BookingMapper;
+import ru.practicum.shareit.server.booking.model.Booking;
+import ru.practicum.shareit.server.booking.model.BookingStatus;
+import ru.practicum.shareit.server.booking.repository.BookingRepository;
+import ru.practicum.shareit.server.item.dto.ItemMapper;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.user.dto.UserMapper;
+import ru.practicum.shareit.server.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Листинг из N бронирований вместе с вещами и арендаторами для
+ * BookingResponseDto должен стоить один SQL-запрос.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BookingQueryCountTest {
+
+    private static final LocalDateTime FIRST_PAGE = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final int ITEMS = 3;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User owner;
+    private User booker;
+    private Booking booking;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        owner = user("owner");
+        List<User> bookers = List.of(user("booker0"), user("booker1"), user("booker2"));
+        booker = bookers.getFirst();
+
+        // Вещи с бронированиями в прошлом, настоящем и будущем у каждого из арендаторов
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = new Item();
+            item.setName("Вещь " + i);
+            item.setDescription("Описание " + i);
+            item.setAvailable(true);
+            item.setOwner(owner.getId());
+            em.persist(item);
+
+            for (User user : bookers) {
+                booking = booking(item, user, now.minusDays(3).plusDays(i * 3L), BookingStatus.APPROVED);
+                booking(item, user, now.plusDays(10), BookingStatus.WAITING);
+            }
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void everyListingLoadsItemsAndBookersInOneQuery() {
+        Long bookerId = booker.getId();
+        Long ownerId = owner.getId();
+        Limit limit = Limit.of(20);
+
+        Map<String, Supplier<List<Booking>>> listings = new LinkedHashMap<>();
+        listings.put("booker ALL", () -> bookingRepository.findBookingsByBooker(bookerId, FIRST_PAGE,
+                Long.MAX_VALUE, limit));
+        listings.put("booker status", () -> bookingRepository.findBookingsByBookerAndStatus(bookerId,
+                BookingStatus.WAITING, FIRST_PAGE, Long.MAX_VALUE, limit));
+        listings.put("booker CURRENT", () -> bookingRepository.findCurrentBookings(bookerId, FIRST_PAGE,
+                Long.MAX_VALUE, limit));
+        listings.put("booker PAST", () -> bookingRepository.findPastBookings(bookerId, FIRST_PAGE,
+                Long.MAX_VALUE, limit));
+        listings.put("booker FUTURE", () -> bookingRepository.findFutureBookings(bookerId, FIRST_PAGE,
+                Long.MAX_VALUE, limit));
+        listings.put("owner ALL", () -> bookingRepository.findAllBookingsByOwner(ownerId, FIRST_PAGE,
+                Long.MAX_VALUE, limit));
+        listings.put("owner status", () -> bookingRepository.findBookingsByOwnerAndStatus(ownerId,
+                BookingStatus.WAITING, FIRST_PAGE, Long.MAX_VALUE, limit));
+        listings.put("owner CURRENT", () -> bookingRepository.findCurrentBookingsByOwner(ownerId, FIRST_PAGE,
+                Long.MAX_VALUE, limit));
+        listings.put("owner PAST", () -> bookingRepository.findPastBookingsByOwner(ownerId, FIRST_PAGE,
+                Long.MAX_VALUE, limit));
+        listings.put("owner FUTURE", () -> bookingRepository.findFutureBookingsByOwner(ownerId, FIRST_PAGE,
+                Long.MAX_VALUE, limit));
+        listings.put("by id", () -> List.of(bookingRepository.findById(booking.getId()).orElseThrow()));
+
+        listings.forEach((name, listing) -> {
+            em.clear();
+            statistics.clear();
+
+            List<Booking> bookings = listing.get();
+            bookings.forEach(BookingQueryCountTest::toResponse);
+
+            assertFalse(bookings.isEmpty(), name);
+            assertEquals(1, statistics.getPrepareStatementCount(), name);
+        });
+    }
+
+    private static void toResponse(Booking booking) {
+        BookingMapper.toBookingResponseDto(booking,
+                ItemMapper.toItemResponseDto(booking.getItem()),
+                UserMapper.toShortUserResponseDto(booking.getBooker()));
+    }
+
+    private User user(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@test.ru");
+        return em.persist(user);
+    }
+
+    private Booking booking(Item item, User booker, LocalDateTime start, BookingStatus status) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(start);
+        booking.setEnd(start.plusDays(1));
+        booking.setStatus(status);
+        return em.persist(booking);
+    }
+}
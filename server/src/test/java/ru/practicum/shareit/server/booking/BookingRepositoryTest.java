@@ -0,0 +1,206 @@
+package ru.practicum.shareit.server.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.server.booking.dto.ItemBookingDatesDto;
+import ru.practicum.shareit.server.booking.model.Booking;
+import ru.practicum.shareit.server.booking.model.BookingPhase;
+import ru.practicum.shareit.server.booking.model.BookingStatus;
+import ru.practicum.shareit.server.booking.repository.BookingRepository;
+import ru.practicum.shareit.server.common.VersionStamp;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class BookingRepositoryTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        owner = new User();
+        owner.setName("Owner");
+        owner.setEmail("owner@test.ru");
+        em.persist(owner);
+
+        booker = new User();
+        booker.setName("Booker");
+        booker.setEmail("booker@test.ru");
+        em.persist(booker);
+
+        item = new Item();
+        item.setName("Дрель");
+        item.setDescription("Простая дрель");
+        item.setAvailable(true);
+        item.setOwner(owner.getId());
+        em.persist(item);
+
+        base = LocalDateTime.now().plusDays(1).withNano(0);
+    }
+
+    @Test
+    void bookerListingIsPagedByStartAndId() {
+        Booking first = booking(base.plusDays(3));
+        Booking second = booking(base.plusDays(2));
+        Booking sameStartOlderId = booking(base.plusDays(2));
+        Booking last = booking(base.plusDays(1));
+
+        List<Booking> page = bookingRepository.findBookingsByBooker(booker.getId(),
+                LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE, Limit.of(2));
+
+        assertEquals(List.of(first.getId(), sameStartOlderId.getId()), ids(page));
+
+        Booking cursor = page.getLast();
+        page = bookingRepository.findBookingsByBooker(booker.getId(), cursor.getStart(), cursor.getId(), Limit.of(2));
+
+        assertEquals(List.of(second.getId(), last.getId()), ids(page));
+    }
+
+    @Test
+    void ownerListingIsPagedByStartAndId() {
+        Booking first = booking(base.plusDays(2));
+        Booking second = booking(base.plusDays(1));
+
+        List<Booking> page = bookingRepository.findBookingsByOwnerAndStatus(owner.getId(), BookingStatus.WAITING,
+                LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE, Limit.of(1));
+
+        assertEquals(List.of(first.getId()), ids(page));
+
+        page = bookingRepository.findBookingsByOwnerAndStatus(owner.getId(), BookingStatus.WAITING,
+                first.getStart(), first.getId(), Limit.of(1));
+
+        assertEquals(List.of(second.getId()), ids(page));
+    }
+
+    @Test
+    void approvedBookingDatesAreAggregatedPerItem() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        Booking past = booking(now.minusDays(5), BookingStatus.APPROVED);
+        booking(now.minusDays(10), BookingStatus.APPROVED);
+        booking(now.minusDays(2), BookingStatus.REJECTED);
+        Booking next = booking(now.plusDays(2), BookingStatus.APPROVED);
+        booking(now.plusDays(4), BookingStatus.APPROVED);
+        booking(now.plusDays(1), BookingStatus.WAITING);
+
+        List<ItemBookingDatesDto> dates = bookingRepository.findApprovedBookingDatesByItemIds(
+                List.of(item.getId()), now);
+
+        assertEquals(List.of(new ItemBookingDatesDto(item.getId(), past.getEnd(), next.getStart())), dates);
+    }
+
+    @Test
+    void bookerStampChangesWithStatusAndTimeBoundaries() {
+        Booking booking = booking(base);
+        VersionStamp created = bookingRepository.getBookerStamp(booker.getId());
+
+        assertEquals(new VersionStamp(1L, booking.getId(), 0L, 0L, 0L), created);
+
+        booking.setStatus(BookingStatus.APPROVED);
+        em.persistAndFlush(booking);
+        VersionStamp approved = bookingRepository.getBookerStamp(booker.getId());
+
+        assertNotEquals(created, approved);
+
+        Booking past = booking(LocalDateTime.now().minusDays(2), BookingStatus.APPROVED);
+
+        assertEquals(new VersionStamp(2L, past.getId(), 1L, 1L, 1L),
+                bookingRepository.getBookerStamp(booker.getId()));
+    }
+
+    @Test
+    void itemDatesStampCountsBoundariesBeforeNow() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        Booking current = booking(now.minusMinutes(30), BookingStatus.APPROVED);
+
+        assertEquals(new VersionStamp(1L, current.getId(), 0L, 0L, 0L),
+                bookingRepository.getItemDatesStamp(item.getId(), now.minusHours(1)));
+        assertEquals(new VersionStamp(1L, current.getId(), 0L, 1L, 0L),
+                bookingRepository.getItemDatesStamp(item.getId(), now));
+        assertEquals(new VersionStamp(1L, current.getId(), 0L, 1L, 1L),
+                bookingRepository.getItemDatesStamp(item.getId(), now.plusHours(1)));
+    }
+
+    @Test
+    void overlapIgnoresTouchingAndInactiveBookings() {
+        booking(base, BookingStatus.APPROVED);
+        booking(base.plusHours(3), BookingStatus.REJECTED);
+        booking(base.plusHours(5), BookingStatus.CANCELED);
+
+        assertTrue(bookingRepository.existsOverlapping(item.getId(), base.minusMinutes(30), base.plusMinutes(30)));
+        assertTrue(bookingRepository.existsOverlapping(item.getId(), base.plusMinutes(10), base.plusMinutes(20)));
+        assertFalse(bookingRepository.existsOverlapping(item.getId(), base.minusHours(1), base));
+        assertFalse(bookingRepository.existsOverlapping(item.getId(), base.plusHours(1), base.plusHours(6)));
+
+        booking(base.plusHours(3), BookingStatus.WAITING);
+
+        assertTrue(bookingRepository.existsOverlapping(item.getId(), base.plusHours(1), base.plusHours(6)));
+    }
+
+    @Test
+    void phaseTransitionsDriveStateListingsAndSurviveStaleSaves() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        LocalDateTime firstPage = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+        Booking booking = booking(now.plusMinutes(30), BookingStatus.APPROVED);
+
+        assertEquals(BookingPhase.FUTURE, booking.getPhase());
+        assertEquals(List.of(booking.getId()), ids(bookingRepository.findFutureBookings(booker.getId(),
+                firstPage, Long.MAX_VALUE, Limit.of(20))));
+
+        assertEquals(0, bookingRepository.markPast(now.plusHours(1)));
+        assertEquals(1, bookingRepository.markCurrent(now.plusHours(1)));
+
+        booking.setStatus(BookingStatus.REJECTED);
+        em.flush();
+        booking.setStatus(BookingStatus.APPROVED);
+        em.flush();
+        em.clear();
+
+        assertEquals(BookingPhase.CURRENT, em.find(Booking.class, booking.getId()).getPhase());
+        assertEquals(List.of(booking.getId()), ids(bookingRepository.findCurrentBookingsByOwner(owner.getId(),
+                firstPage, Long.MAX_VALUE, Limit.of(20))));
+
+        assertEquals(1, bookingRepository.markPast(now.plusHours(2)));
+        em.clear();
+
+        assertEquals(List.of(booking.getId()), ids(bookingRepository.findPastBookings(booker.getId(),
+                firstPage, Long.MAX_VALUE, Limit.of(20))));
+        assertTrue(bookingRepository.findCurrentBookings(booker.getId(), firstPage, Long.MAX_VALUE,
+                Limit.of(20)).isEmpty());
+    }
+
+    private Booking booking(LocalDateTime start) {
+        return booking(start, BookingStatus.WAITING);
+    }
+
+    private Booking booking(LocalDateTime start, BookingStatus status) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(start);
+        booking.setEnd(start.plusHours(1));
+        booking.setStatus(status);
+        return em.persistAndFlush(booking);
+    }
+
+    private static List<Long> ids(List<Booking> bookings) {
+        return bookings.stream().map(Booking::getId).toList();
+    }
+}
@@ -6,12 +6,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import ru.practicum.shareit.server.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.server.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.server.booking.model.Booking;
 import ru.practicum.shareit.server.booking.model.BookingStatus;
 import ru.practicum.shareit.server.booking.repository.BookingRepository;
 import ru.practicum.shareit.server.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.server.booking.service.BusyCalendar;
+import ru.practicum.shareit.server.booking.service.ItemAvailability;
+import ru.practicum.shareit.server.common.ExistenceChecker;
+import ru.practicum.shareit.server.events.ResourceChangedEvent;
+import ru.practicum.shareit.server.exception.ConflictException;
 import ru.practicum.shareit.server.exception.ForbiddenException;
 import ru.practicum.shareit.server.exception.NotFoundException;
 import ru.practicum.shareit.server.exception.ValidationException;
@@ -40,6 +47,18 @@ class BookingServiceTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private ExistenceChecker existenceChecker;
+
+    @Mock
+    private ApplicationEventPublisher events;
+
+    @Mock
+    private ItemAvailability availability;
+
+    @Mock
+    private BusyCalendar calendar;
+
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -93,7 +112,7 @@ class BookingServiceTest {
         when(itemRepository.getItemById(anyLong()))
                 .thenReturn(Optional.of(item));
 
-        when(bookingRepository.save(any(Booking.class)))
+        when(availability.reserve(any(Booking.class)))
                 .thenReturn(booking);
 
         BookingResponseDto result = bookingService.createBooking(dto, booker.getId());
@@ -101,6 +120,23 @@ class BookingServiceTest {
         assertNotNull(result);
         assertEquals(booking.getId(), result.getId());
         assertEquals(booking.getStatus(), result.getStatus());
+        verify(calendar).onBookingCreated(booking);
+    }
+
+    @Test
+    void createBookingOverlapConflict() {
+        BookingCreateDto dto = new BookingCreateDto();
+        dto.setItemId(item.getId());
+        dto.setStart(LocalDateTime.now().plusDays(1));
+        dto.setEnd(LocalDateTime.now().plusDays(2));
+
+        when(userRepository.getUserById(anyLong())).thenReturn(Optional.of(booker));
+        when(itemRepository.getItemById(anyLong())).thenReturn(Optional.of(item));
+        when(availability.reserve(any(Booking.class))).thenThrow(new ConflictException("already booked"));
+
+        assertThrows(ConflictException.class, () ->
+                bookingService.createBooking(dto, booker.getId()));
+        verifyNoInteractions(events);
     }
 
     @Test
@@ -151,33 +187,35 @@ class BookingServiceTest {
     void updateBookingTest() {
         booking.setStatus(BookingStatus.WAITING);
         when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
-        when(userRepository.getUserById(anyLong())).thenReturn(Optional.of(itemOwner));
+        when(existenceChecker.userExists(anyLong())).thenReturn(true);
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
 
         BookingResponseDto result = bookingService.updateBooking(booking.getId(), itemOwner.getId(), true);
 
         assertNotNull(result);
         assertEquals(BookingStatus.APPROVED, result.getStatus());
+        verify(events).publishEvent(ResourceChangedEvent.item(booking.getItem().getId()));
     }
 
     @Test
     void updateBookingRejectTest() {
         booking.setStatus(BookingStatus.WAITING);
         when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
-        when(userRepository.getUserById(anyLong())).thenReturn(Optional.of(itemOwner));
+        when(existenceChecker.userExists(anyLong())).thenReturn(true);
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
 
         BookingResponseDto result = bookingService.updateBooking(booking.getId(), itemOwner.getId(), false);
 
         assertNotNull(result);
         assertEquals(BookingStatus.REJECTED, result.getStatus());
+        verify(calendar).onBookingReleased(item.getId());
     }
 
     @Test
     void updateBookingNotOwnerTest() {
         booking.setStatus(BookingStatus.WAITING);
         when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
-        when(userRepository.getUserById(anyLong())).thenReturn(Optional.of(booker));
+        when(existenceChecker.userExists(anyLong())).thenReturn(true);
 
         assertThrows(ForbiddenException.class, () ->
                 bookingService.updateBooking(booking.getId(), 999L, true));
@@ -187,9 +225,9 @@ class BookingServiceTest {
     void updateBookingInvalidStatusTest() {
         booking.setStatus(BookingStatus.APPROVED);
         when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
-        when(userRepository.getUserById(anyLong())).thenReturn(Optional.of(booker));
+        when(existenceChecker.userExists(anyLong())).thenReturn(true);
 
-        assertThrows(ForbiddenException.class, () ->
+        assertThrows(ValidationException.class, () ->
                 bookingService.updateBooking(booking.getId(), item.getOwner(), true));
     }
 
@@ -197,7 +235,7 @@ class BookingServiceTest {
     @Test
     void getBookingByIdTest() {
         when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
-        when(userRepository.getUserById(anyLong())).thenReturn(Optional.of(booker));
+        when(existenceChecker.userExists(anyLong())).thenReturn(true);
 
         BookingResponseDto result = bookingService.getBookingById(booking.getId(), booker.getId());
 
@@ -215,7 +253,7 @@ class BookingServiceTest {
 
 
         when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
-        when(userRepository.getUserById(anyLong())).thenReturn(Optional.of(badUser));
+        when(existenceChecker.userExists(anyLong())).thenReturn(true);
 
         assertThrows(ForbiddenException.class, () ->
                 bookingService.getBookingById(booking.getId(), 999L));
@@ -224,11 +262,13 @@ class BookingServiceTest {
 
     @Test
     void getAllBookingAtStateTest() {
-        when(userRepository.getUserById(anyLong())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findBookingsByBookerOrderByStartDesc(any(User.class)))
+        when(existenceChecker.userExists(anyLong())).thenReturn(true);
+        when(bookingRepository.findBookingsByBooker(anyLong(), eq(LocalDateTime.of(9999, 12, 31, 23, 59, 59)), eq(Long.MAX_VALUE),
+                eq(Limit.of(20))))
                 .thenReturn(List.of(booking));
 
-        Collection<BookingResponseDto> result = bookingService.getAllBookingAtState(booker.getId(), "ALL");
+        Collection<BookingResponseDto> result = bookingService.getAllBookingAtState(booker.getId(), "ALL",
+                null, null, 20);
 
         assertNotNull(result);
         assertFalse(result.isEmpty());
@@ -236,10 +276,13 @@ class BookingServiceTest {
 
     @Test
     void getAllBookingAtStateCURRENT() {
-        when(userRepository.getUserById(anyLong())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findCurrentBookings(any(User.class))).thenReturn(List.of(booking));
+        when(existenceChecker.userExists(anyLong())).thenReturn(true);
+        when(bookingRepository.findCurrentBookings(anyLong(), any(LocalDateTime.class), anyLong(),
+                any(Limit.class)))
+                .thenReturn(List.of(booking));
 
-        Collection<BookingResponseDto> result = bookingService.getAllBookingAtState(booker.getId(), "CURRENT");
+        Collection<BookingResponseDto> result = bookingService.getAllBookingAtState(booker.getId(), "CURRENT",
+                null, null, 20);
 
         assertNotNull(result);
         assertFalse(result.isEmpty());
@@ -248,9 +291,10 @@ class BookingServiceTest {
 
     @Test
     void getAllBookingAtStatePAST() {
-        when(userRepository.getUserById(anyLong())).thenReturn(Optional.of(booker));
+        when(existenceChecker.userExists(anyLong())).thenReturn(true);
 
-        Collection<BookingResponseDto> result = bookingService.getAllBookingAtState(booker.getId(), "PAST");
+        Collection<BookingResponseDto> result = bookingService.getAllBookingAtState(booker.getId(), "PAST",
+                null, null, 20);
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
@@ -259,9 +303,10 @@ class BookingServiceTest {
 
     @Test
     void getAllBookingAtStateFUTURE() {
-        when(userRepository.getUserById(anyLong())).thenReturn(Optional.of(booker));
+        when(existenceChecker.userExists(anyLong())).thenReturn(true);
 
-        Collection<BookingResponseDto> result = bookingService.getAllBookingAtState(booker.getId(), "FUTURE");
+        Collection<BookingResponseDto> result = bookingService.getAllBookingAtState(booker.getId(), "FUTURE",
+                null, null, 20);
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
@@ -270,25 +315,75 @@ class BookingServiceTest {
     @Test
     void getAllBookingAtStateInvalidStateTest() {
         assertThrows(ValidationException.class, () ->
-                bookingService.getAllBookingAtState(booker.getId(), "UNKNOWN"));
+                bookingService.getAllBookingAtState(booker.getId(), "UNKNOWN", null, null, 20));
     }
 
 
     @Test
     void getAllOwnerBookingAtStateTest() {
-        when(userRepository.getUserById(anyLong())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findAllBookingsByOwner(anyLong()))
+        when(existenceChecker.userExists(anyLong())).thenReturn(true);
+        when(bookingRepository.findAllBookingsByOwner(anyLong(), any(LocalDateTime.class), anyLong(),
+                any(Limit.class)))
                 .thenReturn(List.of(booking));
 
-        Collection<BookingResponseDto> result = bookingService.getAllOwnerBookingAtState(booker.getId(), "ALL");
+        Collection<BookingResponseDto> result = bookingService.getAllOwnerBookingAtState(booker.getId(), "ALL",
+                null, null, 20);
 
         assertNotNull(result);
         assertFalse(result.isEmpty());
     }
 
+    @Test
+    void getAllOwnerBookingAtStateKeepsCursorAndOrder() {
+        Booking older = new Booking();
+        older.setId(2L);
+        older.setBooker(booker);
+        older.setItem(item);
+        older.setStatus(BookingStatus.WAITING);
+        older.setStart(booking.getStart().minusDays(1));
+        older.setEnd(booking.getEnd().minusDays(1));
+
+        LocalDateTime cursorStart = LocalDateTime.now().plusDays(5);
+
+        when(existenceChecker.userExists(anyLong())).thenReturn(true);
+        when(bookingRepository.findBookingsByOwnerAndStatus(itemOwner.getId(), BookingStatus.WAITING,
+                cursorStart, 10L, Limit.of(2)))
+                .thenReturn(List.of(booking, older));
+
+        List<BookingResponseDto> result = bookingService.getAllOwnerBookingAtState(itemOwner.getId(), "WAITING",
+                cursorStart, 10L, 2);
+
+        assertEquals(List.of(booking.getId(), older.getId()),
+                result.stream().map(BookingResponseDto::getId).toList());
+    }
+
+    @Test
+    void getAllBookingAtStateInvalidPageSize() {
+        assertThrows(ValidationException.class, () ->
+                bookingService.getAllBookingAtState(booker.getId(), "ALL", null, null, 0));
+    }
+
+    @Test
+    void getAllBookingAtStateIncompleteCursor() {
+        assertThrows(ValidationException.class, () ->
+                bookingService.getAllBookingAtState(booker.getId(), "ALL", LocalDateTime.now(), null, 20));
+    }
+
     @Test
     void getAllOwnerBookingAtStateInvalidState() {
         assertThrows(ValidationException.class, () ->
-                bookingService.getAllOwnerBookingAtState(booker.getId(), "UNKNOWN"));
+                bookingService.getAllOwnerBookingAtState(booker.getId(), "UNKNOWN", null, null, 20));
+    }
+
+    @Test
+    void bookingListingEtagsCheckUserAndParams() {
+        assertThrows(ForbiddenException.class, () ->
+                bookingService.getAllBookingAtStateEtag(booker.getId(), "ALL", null, null, 20));
+        assertThrows(ForbiddenException.class, () ->
+                bookingService.getAllOwnerBookingAtStateEtag(itemOwner.getId(), "ALL", null, null, 20));
+        assertThrows(ValidationException.class, () ->
+                bookingService.getAllBookingAtStateEtag(booker.getId(), "UNKNOWN", null, null, 20));
+
+        verifyNoInteractions(bookingRepository);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,158 @@
+package ru.practicum.shareit.server.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import ru.practicum.shareit.server.booking.dto.BusyIntervalDto;
+import ru.practicum.shareit.server.booking.model.Booking;
+import ru.practicum.shareit.server.booking.repository.BookingRepository;
+import ru.practicum.shareit.server.booking.service.BusyCalendar;
+import ru.practicum.shareit.server.item.dal.ItemRepository;
+import ru.practicum.shareit.server.item.model.Item;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BusyCalendarTest {
+
+    private static final Long ITEM_ID = 1L;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private BusyCalendar calendar;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        calendar = new BusyCalendar(bookingRepository, itemRepository, transactionManager, 100, Duration.ofMinutes(1),
+                new SimpleMeterRegistry(), nanos::get);
+        base = LocalDateTime.now().plusDays(1).withNano(0);
+    }
+
+    @Test
+    void overlappingAndTouchingBookingsAreMergedAndClippedToWindow() {
+        when(itemRepository.existsById(ITEM_ID)).thenReturn(true);
+        when(bookingRepository.findBusyIntervals(eq(ITEM_ID), any(LocalDateTime.class))).thenReturn(List.of(
+                interval(0, 2),
+                interval(1, 3),
+                interval(3, 4),
+                interval(6, 7),
+                interval(10, 12)));
+
+        assertEquals(List.of(interval(0, 4), interval(6, 7), interval(10, 12)),
+                calendar.busy(ITEM_ID, base.minusHours(1), base.plusHours(13)));
+        assertEquals(List.of(interval(2, 4), interval(6, 7), interval(10, 11)),
+                calendar.busy(ITEM_ID, base.plusHours(2), base.plusHours(11)));
+        assertEquals(List.of(), calendar.busy(ITEM_ID, base.plusHours(4), base.plusHours(6)));
+
+        verify(bookingRepository, times(1)).findBusyIntervals(eq(ITEM_ID), any(LocalDateTime.class));
+    }
+
+    @Test
+    void createdBookingIsMergedIntoLoadedCalendar() {
+        when(itemRepository.existsById(ITEM_ID)).thenReturn(true);
+        when(bookingRepository.findBusyIntervals(eq(ITEM_ID), any(LocalDateTime.class)))
+                .thenReturn(List.of(interval(0, 1), interval(4, 5)));
+        calendar.busy(ITEM_ID, base, base.plusDays(1));
+
+        calendar.onBookingCreated(booking(1, 2));
+        calendar.onBookingCreated(booking(8, 9));
+        calendar.onBookingCreated(booking(3, 4));
+
+        assertEquals(List.of(interval(0, 2), interval(3, 5), interval(8, 9)),
+                calendar.busy(ITEM_ID, base, base.plusDays(1)));
+
+        calendar.onBookingCreated(booking(1, 4));
+
+        assertEquals(List.of(interval(0, 5), interval(8, 9)), calendar.busy(ITEM_ID, base, base.plusDays(1)));
+        verify(bookingRepository, times(1)).findBusyIntervals(eq(ITEM_ID), any(LocalDateTime.class));
+    }
+
+    @Test
+    void localBookingsDoNotExtendLoadedCalendar() {
+        when(itemRepository.existsById(ITEM_ID)).thenReturn(true);
+        when(bookingRepository.findBusyIntervals(eq(ITEM_ID), any(LocalDateTime.class)))
+                .thenReturn(List.of(interval(0, 1)))
+                .thenReturn(List.of(interval(0, 1), interval(6, 7)));
+        calendar.busy(ITEM_ID, base, base.plusDays(1));
+
+        for (int i = 0; i < 3; i++) {
+            nanos.addAndGet(Duration.ofSeconds(25).toNanos());
+            calendar.onBookingCreated(booking(2 + i, 3 + i));
+        }
+
+        assertEquals(List.of(interval(0, 1), interval(6, 7)), calendar.busy(ITEM_ID, base, base.plusDays(1)));
+        verify(bookingRepository, times(2)).findBusyIntervals(eq(ITEM_ID), any(LocalDateTime.class));
+    }
+
+    @Test
+    void releasedBookingReloadsCalendar() {
+        when(itemRepository.existsById(ITEM_ID)).thenReturn(true);
+        when(bookingRepository.findBusyIntervals(eq(ITEM_ID), any(LocalDateTime.class)))
+                .thenReturn(List.of(interval(0, 1)))
+                .thenReturn(List.of());
+
+        assertEquals(1, calendar.busy(ITEM_ID, base, base.plusDays(1)).size());
+
+        calendar.onBookingReleased(ITEM_ID);
+
+        assertTrue(calendar.busy(ITEM_ID, base, base.plusDays(1)).isEmpty());
+    }
+
+    @Test
+    void calendarIsLoadedInOwnWritableTransaction() {
+        when(itemRepository.existsById(ITEM_ID)).thenReturn(true);
+
+        calendar.busy(ITEM_ID, base, base.plusDays(1));
+
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertEquals(TransactionDefinition.PROPAGATION_REQUIRES_NEW, definition.getValue().getPropagationBehavior());
+        assertFalse(definition.getValue().isReadOnly());
+    }
+
+    @Test
+    void missingItemIsNotCached() {
+        assertNull(calendar.busy(ITEM_ID, base, base.plusDays(1)));
+        assertNull(calendar.busy(ITEM_ID, base, base.plusDays(1)));
+
+        verify(itemRepository, times(2)).existsById(ITEM_ID);
+        verifyNoInteractions(bookingRepository);
+    }
+
+    private BusyIntervalDto interval(int fromHour, int toHour) {
+        return new BusyIntervalDto(base.plusHours(fromHour), base.plusHours(toHour));
+    }
+
+    private Booking booking(int fromHour, int toHour) {
+        Item item = new Item();
+        item.setId(ITEM_ID);
+
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setStart(base.plusHours(fromHour));
+        booking.setEnd(base.plusHours(toHour));
+        return booking;
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.server.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.server.booking.model.Booking;
+import ru.practicum.shareit.server.booking.model.BookingStatus;
+import ru.practicum.shareit.server.booking.repository.BookingRepository;
+import ru.practicum.shareit.server.booking.service.ItemAvailability;
+import ru.practicum.shareit.server.exception.ConflictException;
+import ru.practicum.shareit.server.item.dal.ItemRepository;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.user.model.User;
+import ru.practicum.shareit.server.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ItemAvailabilityTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private ItemAvailability availability;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private User booker;
+    private Item item;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        booker = new User();
+        booker.setName("Booker");
+        booker.setEmail("booker" + System.nanoTime() + "@test.ru");
+        booker = userRepository.save(booker);
+
+        item = new Item();
+        item.setName("Палатка");
+        item.setDescription("Четырехместная");
+        item.setAvailable(true);
+        item.setOwner(booker.getId());
+        item = itemRepository.save(item);
+
+        start = LocalDateTime.now().plusDays(1).withNano(0);
+    }
+
+    @Test
+    void concurrentReservationsOfSameSlotLetOnlyOneThrough() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<Booking>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                LocalDateTime shifted = start.plusMinutes(i);
+                results.add(executor.submit(() -> {
+                    ready.await();
+                    return availability.reserve(booking(shifted, shifted.plusHours(2)));
+                }));
+            }
+            ready.countDown();
+
+            int reserved = 0;
+            int conflicts = 0;
+            for (Future<Booking> result : results) {
+                try {
+                    assertNotNull(result.get(30, TimeUnit.SECONDS).getId());
+                    reserved++;
+                } catch (ExecutionException e) {
+                    assertInstanceOf(ConflictException.class, e.getCause());
+                    conflicts++;
+                }
+            }
+
+            assertEquals(1, reserved);
+            assertEquals(THREADS - 1, conflicts);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void adjacentAndRejectedSlotsCanBeReserved() {
+        Booking first = availability.reserve(booking(start, start.plusHours(1)));
+        availability.reserve(booking(start.plusHours(1), start.plusHours(2)));
+
+        assertThrows(ConflictException.class,
+                () -> availability.reserve(booking(start.plusMinutes(30), start.plusMinutes(90))));
+
+        first.setStatus(BookingStatus.REJECTED);
+        bookingRepository.save(first);
+
+        assertNotNull(availability.reserve(booking(start, start.plusMinutes(30))).getId());
+    }
+
+    private Booking booking(LocalDateTime from, LocalDateTime to) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(from);
+        booking.setEnd(to);
+        booking.setStatus(BookingStatus.WAITING);
+        return booking;
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.server.common;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import ru.practicum.shareit.server.config.CacheConfig;
+import ru.practicum.shareit.server.request.repository.RequestRepository;
+import ru.practicum.shareit.server.user.model.User;
+import ru.practicum.shareit.server.user.repository.UserRepository;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExistenceCheckerTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RequestRepository requestRepository;
+
+    private ConcurrentMapCacheManager cacheManager;
+    private ExistenceChecker existenceChecker;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager(CacheConfig.USERS_CACHE);
+        existenceChecker = new ExistenceChecker(userRepository, requestRepository, cacheManager);
+    }
+
+    @Test
+    void cachedUserExistsWithoutQuery() {
+        cacheManager.getCache(CacheConfig.USERS_CACHE).put(1L, new User());
+
+        assertTrue(existenceChecker.userExists(1L));
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void uncachedUserIsCheckedById() {
+        when(userRepository.existsById(2L)).thenReturn(false);
+
+        assertFalse(existenceChecker.userExists(2L));
+
+        verify(userRepository).existsById(2L);
+        verify(userRepository, never()).getUserById(anyLong());
+    }
+
+    @Test
+    void nullIdsDoNotExist() {
+        assertFalse(existenceChecker.userExists(null));
+        assertFalse(existenceChecker.requestExists(null));
+
+        verifyNoInteractions(userRepository, requestRepository);
+    }
+}
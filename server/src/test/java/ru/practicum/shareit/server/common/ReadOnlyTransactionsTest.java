@@ -0,0 +1,135 @@
+package ru.practicum.shareit.server.common;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.server.booking.model.Booking;
+import ru.practicum.shareit.server.booking.model.BookingStatus;
+import ru.practicum.shareit.server.booking.repository.BookingRepository;
+import ru.practicum.shareit.server.booking.service.BookingService;
+import ru.practicum.shareit.server.item.dal.ItemRepository;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.item.search.ItemSearchEngine;
+import ru.practicum.shareit.server.item.service.ItemService;
+import ru.practicum.shareit.server.user.model.User;
+import ru.practicum.shareit.server.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "shareit.booking.phase-refresh=1h"
+})
+class ReadOnlyTransactionsTest {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @MockitoSpyBean
+    private ItemSearchEngine searchEngine;
+
+    private Statistics statistics;
+    private User owner;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        owner = user("owner");
+        User booker = user("booker");
+
+        item = new Item();
+        item.setName("Велосипед");
+        item.setDescription("Горный");
+        item.setAvailable(true);
+        item.setOwner(owner.getId());
+        item = itemRepository.save(item);
+
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(LocalDateTime.now().minusDays(2).withNano(0));
+        booking.setEnd(LocalDateTime.now().minusDays(1).withNano(0));
+        booking.setStatus(BookingStatus.APPROVED);
+        bookingRepository.save(booking);
+    }
+
+    @Test
+    void openInViewIsDisabled() {
+        assertEquals(0, context.getBeanNamesForType(OpenEntityManagerInViewInterceptor.class).length);
+    }
+
+    @Test
+    void readPathsUseOneSessionAndConnectionWithoutFlush() {
+        assertReadPath("items by owner", () -> assertEquals(1, itemService.getItemsByUser(owner.getId()).size()));
+        assertReadPath("item by id", () -> itemService.getItemById(item.getId(), owner.getId(), 0, 10));
+        assertReadPath("owner bookings",
+                () -> assertEquals(1, bookingService.getAllOwnerBookingAtState(owner.getId(), "ALL",
+                        null, null, 10).size()));
+        assertReadPath("item etag", () -> itemService.getItemByIdEtag(item.getId(), owner.getId(), 0, 10));
+        assertReadPath("search", () -> assertEquals(1, itemService.searchItems("велосипед").size()));
+    }
+
+    @Test
+    void searchRunsInReadOnlyTransaction() {
+        AtomicBoolean readOnly = new AtomicBoolean();
+        doAnswer(invocation -> {
+            readOnly.set(TransactionSynchronizationManager.isActualTransactionActive()
+                    && TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+            return invocation.callRealMethod();
+        }).when(searchEngine).search(anyString());
+
+        itemService.searchItems("велосипед");
+
+        assertTrue(readOnly.get());
+    }
+
+    private void assertReadPath(String name, Runnable readPath) {
+        statistics.clear();
+
+        readPath.run();
+
+        assertEquals(1, statistics.getSessionOpenCount(), name);
+        assertEquals(1, statistics.getConnectCount(), name);
+        assertEquals(0, statistics.getFlushCount(), name);
+    }
+
+    private User user(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + System.nanoTime() + "@test.ru");
+        return userRepository.save(user);
+    }
+}
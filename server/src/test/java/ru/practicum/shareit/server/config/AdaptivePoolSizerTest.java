@@ -0,0 +1,121 @@
+package ru.practicum.shareit.server.config;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdaptivePoolSizerTest {
+
+    @Mock
+    private HikariDataSource dataSource;
+
+    @Mock
+    private HikariPoolMXBean pool;
+
+    @Mock
+    private HikariConfigMXBean config;
+
+    private AdaptivePoolSizer sizer;
+
+    @BeforeEach
+    void setUp() {
+        sizer = new AdaptivePoolSizer(dataSource, new PoolSizing(4, 10, true), 3);
+    }
+
+    @Test
+    void growsByPendingThreadsUpToUpperBound() {
+        started();
+        when(config.getMaximumPoolSize()).thenReturn(4, 7);
+        when(pool.getThreadsAwaitingConnection()).thenReturn(3, 5);
+
+        sizer.resize();
+        sizer.resize();
+
+        verify(config).setMaximumPoolSize(7);
+        verify(config).setMaximumPoolSize(10);
+    }
+
+    @Test
+    void growsAtMostTwicePerCheck() {
+        started();
+        when(config.getMaximumPoolSize()).thenReturn(4);
+        when(pool.getThreadsAwaitingConnection()).thenReturn(100);
+
+        sizer.resize();
+
+        verify(config).setMaximumPoolSize(8);
+    }
+
+    @Test
+    void doesNotGrowPastUpperBound() {
+        started();
+        when(config.getMaximumPoolSize()).thenReturn(10);
+        when(pool.getThreadsAwaitingConnection()).thenReturn(20);
+
+        sizer.resize();
+
+        verify(config, never()).setMaximumPoolSize(anyInt());
+    }
+
+    @Test
+    void shrinksHalfwayToTwiceActiveAfterQuietChecks() {
+        started();
+        when(config.getMaximumPoolSize()).thenReturn(8);
+        when(pool.getActiveConnections()).thenReturn(2);
+
+        sizer.resize();
+        sizer.resize();
+        verify(config, never()).setMaximumPoolSize(anyInt());
+
+        sizer.resize();
+        verify(config).setMaximumPoolSize(6);
+    }
+
+    @Test
+    void busyPoolResetsQuietChecks() {
+        started();
+        when(config.getMaximumPoolSize()).thenReturn(8);
+        when(pool.getActiveConnections()).thenReturn(2, 2, 6, 2, 2);
+
+        for (int i = 0; i < 5; i++) {
+            sizer.resize();
+        }
+
+        verify(config, never()).setMaximumPoolSize(anyInt());
+    }
+
+    @Test
+    void doesNotShrinkBelowLowerBound() {
+        started();
+        when(config.getMaximumPoolSize()).thenReturn(5, 5, 5, 4);
+
+        for (int i = 0; i < 6; i++) {
+            sizer.resize();
+        }
+
+        verify(config).setMaximumPoolSize(4);
+        verify(config, times(1)).setMaximumPoolSize(anyInt());
+    }
+
+    @Test
+    void skipsPoolThatHasNotStarted() {
+        when(dataSource.getHikariPoolMXBean()).thenReturn(null);
+
+        sizer.resize();
+
+        verifyNoInteractions(config);
+    }
+
+    private void started() {
+        when(dataSource.getHikariPoolMXBean()).thenReturn(pool);
+        when(dataSource.getHikariConfigMXBean()).thenReturn(config);
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.server.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConcurrencyLimitedDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    private ConcurrencyLimitedDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ConcurrencyLimitedDataSource(target, 1, Duration.ofMillis(50));
+    }
+
+    @Test
+    void getConnectionFailsWhenAllPermitsAreTaken() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+
+        dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        verify(target, times(1)).getConnection();
+    }
+
+    @Test
+    void closeReleasesPermitOnce() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+
+        Connection first = dataSource.getConnection();
+        first.close();
+        first.close();
+
+        assertEquals(1, dataSource.availablePermits());
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void failedConnectionReleasesPermit() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("down"));
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertEquals(1, dataSource.availablePermits());
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.server.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.server.exception.NotFoundException;
+import ru.practicum.shareit.server.item.service.ItemService;
+import ru.practicum.shareit.server.user.model.User;
+import ru.practicum.shareit.server.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "shareit.db.slow-query-threshold=0ms")
+@ExtendWith(OutputCaptureExtension.class)
+class LatencyAspectTest {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void serviceCallsAreTimedAndQueriesAttributedToThem(CapturedOutput output) {
+        User owner = new User();
+        owner.setName("Owner");
+        owner.setEmail("owner" + System.nanoTime() + "@test.ru");
+        owner = userRepository.save(owner);
+
+        itemService.getItemsByUser(owner.getId());
+
+        Timer timer = registry.find("shareit.service.invocations")
+                .tags("service", "ItemServiceImpl", "method", "getItemsByUser", "exception", "none")
+                .timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+        assertTrue(output.getOut().contains("Slow query ItemRepository.findByOwner(" + owner.getId()
+                + ") took"), output.getOut());
+        assertTrue(output.getOut().contains("called from ItemServiceImpl.getItemsByUser"));
+        assertTrue(output.getOut().contains("Slow query UserRepository.save(User) took"));
+        assertTrue(output.getOut().contains("called from outside services"));
+    }
+
+    @Test
+    void failedServiceCallIsTaggedWithException() {
+        assertThrows(NotFoundException.class, () -> itemService.getItemsByUser(-1L));
+
+        assertNotNull(registry.find("shareit.service.invocations")
+                .tags("method", "getItemsByUser", "exception", "NotFoundException")
+                .timer());
+    }
+
+    @Test
+    void argumentsAreDescribedWithoutEntityToString() {
+        List<Long> ids = IntStream.range(0, 12).mapToObj(Long::valueOf).toList();
+
+        assertEquals("12 elements [0, 1, 2, 3, 4, 5, 6, 7, 8, 9, ...], 'x', null, User, 2030-01-01T00:00, limit 5",
+                LatencyAspect.describe(new Object[]{ids, "x", null, new User(),
+                        LocalDateTime.of(2030, 1, 1, 0, 0), Limit.of(5)}));
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.server.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PinnedThreadMonitorTest {
+
+    @Test
+    void sourceIsFirstKnownFrameFromTop() {
+        assertEquals("h2", PinnedThreadMonitor.source(List.of(
+                "java.lang.Object",
+                "org.h2.mvstore.FileStore",
+                "com.github.benmanes.caffeine.cache.BoundedLocalCache",
+                "ru.practicum.shareit.server.booking.service.BusyCalendar")));
+    }
+
+    @Test
+    void unknownFramesAreCountedAsOther() {
+        assertEquals("other", PinnedThreadMonitor.source(List.of(
+                "java.lang.Object",
+                "ru.practicum.shareit.server.item.service.ItemServiceImpl")));
+        assertEquals("other", PinnedThreadMonitor.source(List.of()));
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.server.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PoolSizingTest {
+
+    @Test
+    void fixedPoolIsSizedFromCores() {
+        PoolSizing sizing = PoolSizing.from(new MockEnvironment(), 4);
+
+        assertEquals(new PoolSizing(9, 9, false), sizing);
+    }
+
+    @Test
+    void fixedPoolFitsInstanceShareOfDatabaseLimit() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("shareit.db.pool.max-connections", "50")
+                .withProperty("shareit.db.pool.reserved-connections", "2")
+                .withProperty("shareit.db.pool.instances", "8");
+
+        assertEquals(new PoolSizing(6, 6, false), PoolSizing.from(environment, 16));
+    }
+
+    @Test
+    void explicitMaximumPoolSizeWins() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.datasource.hikari.maximum-pool-size", "30");
+
+        assertEquals(new PoolSizing(30, 30, false), PoolSizing.from(environment, 2));
+    }
+
+    @Test
+    void adaptivePoolGrowsFromCoresToInstanceShare() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("shareit.db.pool.adaptive.enabled", "true")
+                .withProperty("shareit.db.pool.instances", "2");
+
+        assertEquals(new PoolSizing(5, 48, true), PoolSizing.from(environment, 4));
+    }
+
+    @Test
+    void adaptiveLowerBoundDoesNotExceedUpperBound() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("shareit.db.pool.adaptive.enabled", "true")
+                .withProperty("shareit.db.pool.adaptive.max-size", "4");
+
+        assertEquals(new PoolSizing(4, 4, true), PoolSizing.from(environment, 16));
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.server.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.server.booking.model.Booking;
+import ru.practicum.shareit.server.booking.model.BookingStatus;
+import ru.practicum.shareit.server.booking.repository.BookingRepository;
+import ru.practicum.shareit.server.booking.service.BusyCalendar;
+import ru.practicum.shareit.server.item.dal.ItemRepository;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.user.model.User;
+import ru.practicum.shareit.server.user.repository.UserRepository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.threads.virtual.enabled=true",
+        "shareit.datasource.replica.urls=jdbc:h2:mem:replica-limit;DB_CLOSE_DELAY=-1",
+        "shareit.db.acquire-timeout=250ms",
+        "shareit.booking.phase-refresh=1h"
+})
+class ReplicaConfigTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ReplicaSet replicas;
+
+    @Autowired
+    private BusyCalendar calendar;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    void limiterWrapsOnlyPrimaryInsideRouting() {
+        ReplicaRoutingDataSource routing = assertInstanceOf(ReplicaRoutingDataSource.class, dataSource);
+
+        assertInstanceOf(ConcurrencyLimitedDataSource.class, routing.getTargetDataSource());
+    }
+
+    @Test
+    void replicaReadsDoNotTakePrimaryPermits() throws SQLException {
+        replicas.refreshLag();
+        ConcurrencyLimitedDataSource primary =
+                (ConcurrencyLimitedDataSource) ((ReplicaRoutingDataSource) dataSource).getTargetDataSource();
+
+        List<Connection> writes = new ArrayList<>();
+        try {
+            while (primary.availablePermits() > 0) {
+                Connection write = dataSource.getConnection();
+                write.getMetaData();
+                writes.add(write);
+            }
+
+            try (Connection read = dataSource.getConnection()) {
+                read.setReadOnly(true);
+                assertTrue(read.getMetaData().getURL().contains("replica-limit"));
+            }
+        } finally {
+            for (Connection write : writes) {
+                write.close();
+            }
+        }
+    }
+
+    @Test
+    void availabilityCalendarLoadsFromPrimary() {
+        replicas.refreshLag();
+
+        User owner = new User();
+        owner.setName("Owner");
+        owner.setEmail("owner" + System.nanoTime() + "@test.ru");
+        owner = userRepository.save(owner);
+
+        Item item = new Item();
+        item.setName("Палатка");
+        item.setDescription("Четырехместная");
+        item.setAvailable(true);
+        item.setOwner(owner.getId());
+        item = itemRepository.save(item);
+
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(owner);
+        booking.setStart(LocalDateTime.now().plusDays(1).withNano(0));
+        booking.setEnd(LocalDateTime.now().plusDays(2).withNano(0));
+        booking.setStatus(BookingStatus.WAITING);
+        bookingRepository.save(booking);
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        Long itemId = item.getId();
+
+        // В базе реплики нет схемы: чтение с нее упало бы, а не вернуло календарь
+        assertEquals(1, readOnly.execute(status ->
+                calendar.busy(itemId, LocalDateTime.now(), LocalDateTime.now().plusDays(3))).size());
+    }
+}
@@ -0,0 +1,141 @@
+package ru.practicum.shareit.server.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private HikariDataSource primary;
+    private HikariDataSource replica;
+    private ReadYourWrites readYourWrites;
+    private ReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = database("primary");
+        replica = database("replica");
+        readYourWrites = new ReadYourWrites(Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        primary.close();
+        replica.close();
+    }
+
+    @Test
+    void readOnlyConnectionsUseReplicaOnceLagIsChecked() throws SQLException {
+        ReplicaSet replicas = route(null);
+
+        assertEquals("primary", read(true));
+
+        replicas.refreshLag();
+
+        assertEquals("replica", read(true));
+        assertEquals("primary", read(false));
+    }
+
+    @Test
+    void laggingReplicaIsSkipped() throws SQLException {
+        execute(replica, "CREATE TABLE lag (seconds DOUBLE)", "INSERT INTO lag VALUES (10)");
+        ReplicaSet replicas = route("SELECT seconds FROM lag");
+
+        replicas.refreshLag();
+        assertEquals(10.0, replicas.lagSeconds(0));
+        assertEquals("primary", read(true));
+
+        execute(replica, "UPDATE lag SET seconds = 1");
+        replicas.refreshLag();
+        assertEquals("replica", read(true));
+    }
+
+    @Test
+    void readsOfRecentWriterUsePrimary() throws SQLException {
+        route(null).refreshLag();
+
+        MockHttpServletRequest write = request("PATCH", "1");
+        readYourWrites.preHandle(write, new MockHttpServletResponse(), new Object());
+        assertEquals("primary", read(true));
+        readYourWrites.afterCompletion(write, new MockHttpServletResponse(), new Object(), null);
+
+        assertEquals("primary", readAs("1"));
+        assertEquals("replica", readAs("2"));
+    }
+
+    @Test
+    void unavailableReplicaFallsBackToPrimary() throws SQLException {
+        ReplicaSet replicas = route(null);
+        replicas.refreshLag();
+
+        replica.close();
+
+        assertEquals("primary", read(true));
+        assertTrue(Double.isNaN(replicas.lagSeconds(0)));
+    }
+
+    private ReplicaSet route(String lagQuery) {
+        ReplicaSet replicas = new ReplicaSet(List.of(replica), Duration.ofSeconds(5), lagQuery, readYourWrites);
+        dataSource = new ReplicaRoutingDataSource(primary, replicas);
+        return replicas;
+    }
+
+    private String readAs(String userId) throws SQLException {
+        MockHttpServletRequest read = request("GET", userId);
+        readYourWrites.preHandle(read, new MockHttpServletResponse(), new Object());
+        try {
+            return read(true);
+        } finally {
+            readYourWrites.afterCompletion(read, new MockHttpServletResponse(), new Object(), null);
+        }
+    }
+
+    private String read(boolean readOnly) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setReadOnly(readOnly);
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("SELECT name FROM node")) {
+                resultSet.next();
+                return resultSet.getString(1);
+            }
+        }
+    }
+
+    private static MockHttpServletRequest request(String method, String userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/items");
+        request.addHeader(ReadYourWrites.USER_HEADER, userId);
+        return request;
+    }
+
+    private static HikariDataSource database(String name) throws SQLException {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setJdbcUrl("jdbc:h2:mem:" + name + System.nanoTime());
+        config.setMaximumPoolSize(2);
+        config.setConnectionTimeout(250);
+        HikariDataSource pool = new HikariDataSource(config);
+        execute(pool, "CREATE TABLE node (name VARCHAR(16))", "INSERT INTO node VALUES ('" + name + "')");
+        return pool;
+    }
+
+    private static void execute(HikariDataSource pool, String... sql) throws SQLException {
+        try (Connection connection = pool.getConnection(); Statement statement = connection.createStatement()) {
+            for (String command : sql) {
+                statement.execute(command);
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.server.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import ru.practicum.shareit.server.item.dal.CommentRepository;
+import ru.practicum.shareit.server.item.dto.CommentResponseDto;
+import ru.practicum.shareit.server.item.model.Comment;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class CommentRepositoryTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private Item item;
+    private final List<Long> newestFirst = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        User author = new User();
+        author.setName("Author");
+        author.setEmail("author@test.ru");
+        em.persist(author);
+
+        item = new Item();
+        item.setName("Дрель");
+        item.setDescription("Простая дрель");
+        item.setAvailable(true);
+        item.setOwner(author.getId());
+        em.persist(item);
+
+        LocalDateTime base = LocalDateTime.now().minusDays(1).withNano(0);
+        for (int i = 0; i < 15; i++) {
+            Comment comment = new Comment();
+            comment.setText("Отзыв " + i);
+            comment.setItemId(item.getId());
+            comment.setAuthorId(author.getId());
+            comment.setCreated(base.plusMinutes(i));
+            em.persist(comment);
+            newestFirst.addFirst(comment.getId());
+        }
+        em.flush();
+    }
+
+    @Test
+    void commentsArePagedByOffsetNotByPageNumber() {
+        List<CommentResponseDto> page = commentRepository.findCommentsWithAuthorByItemId(item.getId(), 5, 10);
+
+        assertEquals(newestFirst.subList(5, 15), page.stream().map(CommentResponseDto::getId).toList());
+        assertEquals("Author", page.getFirst().getAuthorName());
+    }
+
+    @Test
+    void offsetPastLastCommentReturnsEmptyPage() {
+        assertTrue(commentRepository.findCommentsWithAuthorByItemId(item.getId(), 15, 10).isEmpty());
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -18,8 +19,11 @@ import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -101,7 +105,7 @@ class ItemControllerTest {
 
     @Test
     void getItemById_ReturnsItem() throws Exception {
-        when(itemService.getItemById(eq(1L), eq(100L))).thenReturn(itemWithComments);
+        when(itemService.getItemById(eq(1L), eq(100L), eq(0), eq(20))).thenReturn(itemWithComments);
 
         mvc.perform(get("/items/{itemId}", 1L)
                         .header("X-Sharer-User-Id", 100L))
@@ -120,6 +124,32 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.size()").value(1));
     }
 
+    @Test
+    void getItemsByUser_ReturnsNotModifiedForMatchingEtag() throws Exception {
+        when(itemService.getItemsByUserEtag(eq(100L))).thenReturn("\"v1\"");
+
+        mvc.perform(get("/items")
+                        .header("X-Sharer-User-Id", 100L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"v1\""));
+
+        verify(itemService, never()).getItemsByUser(any());
+    }
+
+    @Test
+    void getItemsByUser_ReturnsItemsWithEtagWhenChanged() throws Exception {
+        when(itemService.getItemsByUserEtag(eq(100L))).thenReturn("\"v2\"");
+        when(itemService.getItemsByUser(eq(100L))).thenReturn(List.of(itemWithComments));
+
+        mvc.perform(get("/items")
+                        .header("X-Sharer-User-Id", 100L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"v2\""))
+                .andExpect(jsonPath("$.size()").value(1));
+    }
+
     @Test
     void searchItems_ReturnsMatchingItems() throws Exception {
         when(itemService.searchItems(eq("book"))).thenReturn(List.of(itemResponseDto));
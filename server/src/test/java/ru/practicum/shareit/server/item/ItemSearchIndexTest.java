@@ -0,0 +1,107 @@
+package ru.practicum.shareit.server.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.server.item.dal.ItemRepository;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.item.search.ItemSearchIndex;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchIndexTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(itemRepository.findByAvailableTrueAndIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class)))
+                .thenReturn(List.of(
+                        item(1L, "Дрель", "Аккумуляторная дрель", 10L),
+                        item(2L, "Отвертка", "Крестовая отвертка", 10L),
+                        item(3L, "Лестница", "Стремянка алюминиевая", 20L)));
+
+        index = new ItemSearchIndex(itemRepository);
+        index.rebuild();
+    }
+
+    @Test
+    void searchMatchesSubstringIgnoringCase() {
+        Collection<Item> result = index.search("ДРЕЛ");
+
+        assertEquals(1, result.size());
+        assertEquals(1L, result.iterator().next().getId());
+    }
+
+    @Test
+    void searchMatchesDescription() {
+        Collection<Item> result = index.search("алюмин");
+
+        assertEquals(List.of(3L), result.stream().map(Item::getId).toList());
+    }
+
+    @Test
+    void searchShortQueryScansDocuments() {
+        Collection<Item> result = index.search("ре");
+
+        assertEquals(3, result.size());
+    }
+
+    @Test
+    void searchRejectsTrigramFalsePositives() {
+        index.onItemSaved(item(4L, "abcxbcd", "", 30L));
+
+        assertTrue(index.search("abcd").isEmpty());
+    }
+
+    @Test
+    void updateReplacesIndexedText() {
+        Item updated = item(1L, "Перфоратор", "Мощный перфоратор", 10L);
+
+        index.onItemSaved(updated);
+
+        assertTrue(index.search("дрель").isEmpty());
+        assertEquals(1, index.search("перфор").size());
+    }
+
+    @Test
+    void unavailableItemIsRemoved() {
+        Item unavailable = item(2L, "Отвертка", "Крестовая отвертка", 10L);
+        unavailable.setAvailable(false);
+
+        index.onItemSaved(unavailable);
+
+        assertTrue(index.search("отвертка").isEmpty());
+    }
+
+    @Test
+    void ownerDeletionRemovesOwnerItems() {
+        index.onOwnerDeleted(10L);
+
+        assertTrue(index.search("дрель").isEmpty());
+        assertEquals(1, index.search("стремянка").size());
+    }
+
+    private static Item item(Long id, String name, String description, Long owner) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(true);
+        item.setOwner(owner);
+        return item;
+    }
+}
@@ -6,9 +6,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.server.booking.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.server.booking.dto.ItemBookingDatesDto;
 import ru.practicum.shareit.server.booking.model.Booking;
 import ru.practicum.shareit.server.booking.model.BookingStatus;
 import ru.practicum.shareit.server.booking.repository.BookingRepository;
+import ru.practicum.shareit.server.booking.service.BusyCalendar;
+import ru.practicum.shareit.server.common.ExistenceChecker;
+import ru.practicum.shareit.server.common.VersionStamp;
+import ru.practicum.shareit.server.events.ResourceChangedEvent;
 import ru.practicum.shareit.server.exception.ForbiddenException;
 import ru.practicum.shareit.server.exception.NotFoundException;
 import ru.practicum.shareit.server.exception.ValidationException;
@@ -17,6 +26,7 @@ import ru.practicum.shareit.server.item.dal.ItemRepository;
 import ru.practicum.shareit.server.item.dto.*;
 import ru.practicum.shareit.server.item.model.Comment;
 import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.item.search.ItemSearchEngine;
 import ru.practicum.shareit.server.item.service.ItemServiceImpl;
 import ru.practicum.shareit.server.user.dto.UserMapper;
 import ru.practicum.shareit.server.user.model.User;
@@ -28,6 +38,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -50,6 +61,21 @@ class ItemServiceTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private ItemSearchEngine searchEngine;
+
+    @Mock
+    private ExistenceChecker existenceChecker;
+
+    @Mock
+    private ApplicationEventPublisher events;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private BusyCalendar calendar;
+
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -105,11 +131,12 @@ class ItemServiceTest {
         dto.setDescription("Brand new");
         dto.setAvailable(true);
 
-        when(userService.getUserById(anyLong())).thenReturn(UserMapper.toUserResponseDto(owner));
+        when(existenceChecker.userExists(anyLong())).thenReturn(true);
         when(itemRepository.save(any(Item.class))).thenReturn(item);
 
         ItemResponseDto result = itemService.createItem(dto, owner.getId());
 
+        verify(searchEngine).onItemSaved(item);
         assertNotNull(result);
         assertEquals(item.getId(), result.getId());
         assertEquals(item.getName(), result.getName());
@@ -118,6 +145,8 @@ class ItemServiceTest {
 
     @Test
     void updateItemTest() {
+        when(existenceChecker.userExists(anyLong())).thenReturn(true);
+
         ItemUpdateRequestDto dto = new ItemUpdateRequestDto();
         dto.setName("Updated Name");
 
@@ -128,10 +157,13 @@ class ItemServiceTest {
 
         assertNotNull(result);
         assertEquals("Updated Name", result.getName());
+        verify(events).publishEvent(ResourceChangedEvent.item(item.getId()));
     }
 
     @Test
     void updateItemForbidden() {
+        when(existenceChecker.userExists(anyLong())).thenReturn(true);
+
         ItemUpdateRequestDto dto = new ItemUpdateRequestDto();
         dto.setName("Updated Name");
 
@@ -142,22 +174,113 @@ class ItemServiceTest {
                 itemService.updateItem(item.getId(), dto, 999L));
     }
 
+    @Test
+    void saveItemsReportsFailedRowsAndSavesTheRest() {
+        when(existenceChecker.userExists(anyLong())).thenReturn(true);
+        when(existenceChecker.existingRequests(Set.of(7L, 8L))).thenReturn(Set.of(7L));
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> ((TransactionCallback<?>) inv.getArgument(0)).doInTransaction(null));
+        when(itemRepository.findAllById(Set.of(item.getId(), 99L))).thenReturn(List.of(item));
+        when(itemRepository.saveAll(anyList())).thenAnswer(inv -> {
+            List<Item> items = inv.getArgument(0);
+            long id = 100;
+            for (Item saved : items) {
+                if (saved.getId() == null) {
+                    saved.setId(id++);
+                }
+            }
+            return items;
+        });
+
+        ItemBatchRequestDto created = batchRow(null, "Drill", "Cordless", true, 7L);
+        ItemBatchRequestDto unknownRequest = batchRow(null, "Saw", "Hand saw", true, 8L);
+        ItemBatchRequestDto updated = batchRow(item.getId(), "Renamed", null, null, null);
+        ItemBatchRequestDto missing = batchRow(99L, "Ghost", null, null, null);
+        ItemBatchRequestDto blank = batchRow(null, " ", "Empty name", true, null);
+
+        List<ItemBatchResultDto> results = itemService.saveItems(
+                List.of(created, unknownRequest, updated, missing, blank), owner.getId());
+
+        assertEquals(5, results.size());
+        assertEquals(ItemBatchResultDto.Status.CREATED, results.get(0).getStatus());
+        assertEquals(100L, results.get(0).getItem().getId());
+        assertEquals(ItemBatchResultDto.Status.FAILED, results.get(1).getStatus());
+        assertEquals(ItemBatchResultDto.Status.UPDATED, results.get(2).getStatus());
+        assertEquals("Renamed", results.get(2).getItem().getName());
+        assertEquals(ItemBatchResultDto.Status.FAILED, results.get(3).getStatus());
+        assertEquals(ItemBatchResultDto.Status.FAILED, results.get(4).getStatus());
+        assertEquals(4, results.get(4).getIndex());
+
+        verify(itemRepository).saveAll(argThat(items -> ((List<Item>) items).size() == 2));
+        verify(searchEngine, times(2)).onItemSaved(any(Item.class));
+        verify(events).publishEvent(ResourceChangedEvent.request(7L));
+        verify(events).publishEvent(ResourceChangedEvent.item(item.getId()));
+    }
+
+    @Test
+    void saveItemsRejectsOtherOwnersItems() {
+        when(existenceChecker.userExists(anyLong())).thenReturn(true);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> ((TransactionCallback<?>) inv.getArgument(0)).doInTransaction(null));
+        when(itemRepository.findAllById(Set.of(item.getId()))).thenReturn(List.of(item));
+        when(itemRepository.saveAll(anyList())).thenReturn(List.of());
+
+        List<ItemBatchResultDto> results = itemService.saveItems(
+                List.of(batchRow(item.getId(), "Stolen", null, null, null)), 999L);
+
+        assertEquals(ItemBatchResultDto.Status.FAILED, results.get(0).getStatus());
+        assertEquals("Test Item", item.getName());
+        verifyNoInteractions(events, searchEngine);
+    }
+
+    @Test
+    void saveItemsRejectsEmptyBatch() {
+        when(existenceChecker.userExists(anyLong())).thenReturn(true);
+
+        assertThrows(ValidationException.class, () -> itemService.saveItems(List.of(), owner.getId()));
+        verifyNoInteractions(itemRepository, transactionTemplate);
+    }
+
+    @Test
+    void getAvailabilityClampsWindowToNow() {
+        LocalDateTime to = LocalDateTime.now().plusDays(3);
+        when(existenceChecker.userExists(anyLong())).thenReturn(true);
+        when(calendar.busy(eq(item.getId()), any(LocalDateTime.class), eq(to))).thenReturn(List.of());
+
+        ItemAvailabilityDto result = itemService.getAvailability(item.getId(), owner.getId(),
+                LocalDateTime.now().minusDays(1), to);
+
+        assertFalse(result.getFrom().isBefore(LocalDateTime.now().minusMinutes(1)));
+        assertEquals(to, result.getTo());
+        assertTrue(result.getBusy().isEmpty());
+    }
+
+    @Test
+    void getAvailabilityValidatesWindowAndItem() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+        when(existenceChecker.userExists(anyLong())).thenReturn(true);
+
+        assertThrows(ValidationException.class, () ->
+                itemService.getAvailability(item.getId(), owner.getId(), from, from));
+        assertThrows(ValidationException.class, () ->
+                itemService.getAvailability(item.getId(), owner.getId(), from, from.plusDays(400)));
+        when(calendar.busy(eq(999L), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(null);
+        assertThrows(NotFoundException.class, () ->
+                itemService.getAvailability(999L, owner.getId(), from, from.plusDays(1)));
+    }
+
     @Test
     void getItemByIdTest() {
 
         when(itemRepository.getItemById(anyLong()))
                 .thenReturn(Optional.of(item));
 
-        when(userRepository.getUserById(anyLong()))
-                .thenReturn(Optional.of(owner));
-
-        when(commentRepository.findAllByItemId(anyLong()))
-                .thenReturn(List.of(comment));
+        when(existenceChecker.userExists(anyLong())).thenReturn(true);
 
-        when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(owner));
+        when(commentRepository.findCommentsWithAuthorByItemId(item.getId(), 0, 20))
+                .thenReturn(List.of(ItemMapper.toCommentResponseDto(comment, owner.getName())));
 
-        ItemWithCommentsResponseDto result = itemService.getItemById(item.getId(), owner.getId());
+        ItemWithCommentsResponseDto result = itemService.getItemById(item.getId(), owner.getId(), 0, 20);
 
         assertNotNull(result);
         assertEquals(item.getName(), result.getName());
@@ -167,20 +290,30 @@ class ItemServiceTest {
     @Test
     void getItemByIdNotFound() {
         assertThrows(NotFoundException.class, () ->
-                itemService.getItemById(999L, owner.getId()));
+                itemService.getItemById(999L, owner.getId(), 0, 20));
+    }
+
+    @Test
+    void getItemByIdWithInvalidCommentsPage() {
+        assertThrows(ValidationException.class, () ->
+                itemService.getItemById(item.getId(), owner.getId(), -1, 20));
+        assertThrows(ValidationException.class, () ->
+                itemService.getItemById(item.getId(), owner.getId(), 0, 0));
+
+        verifyNoInteractions(itemRepository, commentRepository);
     }
 
     @Test
     void getItemsByUserTest() {
 
-        when(userService.getUserById(anyLong()))
-                .thenReturn(UserMapper.toUserResponseDto(owner));
+        when(existenceChecker.userExists(anyLong())).thenReturn(true);
 
         when(itemRepository.findByOwner(anyLong()))
                 .thenReturn(List.of(item));
 
-        when(bookingRepository.findApprovedBookingsByItemIdsOrderByDesc(anyList()))
-                .thenReturn(List.of(pastBooking, futureBooking));
+        when(bookingRepository.findApprovedBookingDatesByItemIds(anyList(), any(LocalDateTime.class)))
+                .thenReturn(List.of(new ItemBookingDatesDto(item.getId(), pastBooking.getEnd(),
+                        futureBooking.getStart())));
 
         when(commentRepository.findAllCommentsByItemIdsOrderByDesc(anyList()))
                 .thenReturn(List.of(comment));
@@ -192,11 +325,13 @@ class ItemServiceTest {
 
         assertNotNull(result);
         assertFalse(result.isEmpty());
+        assertEquals(pastBooking.getEnd(), result.iterator().next().getLastBooking());
+        assertEquals(futureBooking.getStart(), result.iterator().next().getNextBooking());
     }
 
     @Test
     void searchItemsTest() {
-        when(itemRepository.searchItems(anyString())).thenReturn(List.of(item));
+        when(searchEngine.search(anyString())).thenReturn(List.of(item));
 
         Collection<ItemResponseDto> result = itemService.searchItems("test");
 
@@ -211,6 +346,14 @@ class ItemServiceTest {
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void searchItemsWithBlankQueryDoesNotHitRepository() {
+        Collection<ItemResponseDto> result = itemService.searchItems("   ");
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(searchEngine);
+    }
+
     @Test
     void addCommentTest() {
         CommentRequestDto dto = new CommentRequestDto();
@@ -225,8 +368,9 @@ class ItemServiceTest {
         when(bookingRepository.findTopByItemIdAndEndBeforeOrderByEndDesc(anyLong(), any(LocalDateTime.class)))
                 .thenReturn(Optional.ofNullable(pastBooking));
 
-        when(bookingRepository.findPastBookings(any(User.class)))
-                .thenReturn(List.of(pastBooking));
+        when(bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(anyLong(), anyLong(),
+                eq(BookingStatus.APPROVED), any(LocalDateTime.class)))
+                .thenReturn(true);
 
         when(commentRepository.save(any(Comment.class)))
                 .thenReturn(comment);
@@ -235,6 +379,7 @@ class ItemServiceTest {
 
         assertNotNull(result);
         assertEquals(dto.getText(), result.getText());
+        verify(events).publishEvent(ResourceChangedEvent.item(item.getId()));
     }
 
     @Test
@@ -265,7 +410,9 @@ class ItemServiceTest {
         when(bookingRepository.findTopByItemIdAndEndBeforeOrderByEndDesc(anyLong(), any(LocalDateTime.class)))
                 .thenReturn(Optional.of(pastBooking));
 
-        when(bookingRepository.findPastBookings(any(User.class))).thenReturn(Collections.emptyList());
+        when(bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(anyLong(), anyLong(),
+                eq(BookingStatus.APPROVED), any(LocalDateTime.class)))
+                .thenReturn(false);
 
         assertThrows(ValidationException.class, () ->
                 itemService.addComment(new CommentRequestDto(), item.getId(), owner.getId()));
@@ -284,9 +431,9 @@ class ItemServiceTest {
         User user = new User();
         user.setId(1L);
 
-        when(userRepository.getUserById(anyLong())).thenReturn(Optional.of(user));
+        when(existenceChecker.userExists(anyLong())).thenReturn(true);
 
-        ItemWithCommentsResponseDto result = itemService.getItemById(item.getId(), user.getId());
+        ItemWithCommentsResponseDto result = itemService.getItemById(item.getId(), user.getId(), 0, 20);
 
         assertNotNull(result);
         assertNull(result.getLastBooking());
@@ -296,6 +443,7 @@ class ItemServiceTest {
     @Test
     void getItemsByUserNoItems() {
 
+        when(existenceChecker.userExists(anyLong())).thenReturn(true);
         when(itemRepository.findByOwner(anyLong()))
                 .thenReturn(Collections.emptyList());
 
@@ -331,6 +479,8 @@ class ItemServiceTest {
 
     @Test
     void getItemsByUserWithItemsButNoBookingsOrComments() {
+        when(existenceChecker.userExists(anyLong())).thenReturn(true);
+
         Item item = new Item();
         item.setId(1L);
         item.setOwner(owner.getId());
@@ -342,7 +492,7 @@ class ItemServiceTest {
         when(commentRepository.findAllCommentsByItemIdsOrderByDesc(anyList()))
                 .thenReturn(Collections.emptyList());
 
-        when(bookingRepository.findApprovedBookingsByItemIdsOrderByDesc(anyList()))
+        when(bookingRepository.findApprovedBookingDatesByItemIds(anyList(), any(LocalDateTime.class)))
                 .thenReturn(Collections.emptyList());
 
         Collection<ItemWithCommentsResponseDto> result = itemService.getItemsByUser(owner.getId());
@@ -352,4 +502,31 @@ class ItemServiceTest {
         assertNull(result.iterator().next().getNextBooking());
         assertTrue(result.iterator().next().getComments().isEmpty());
     }
-}
\ No newline at end of file
+
+    private static ItemBatchRequestDto batchRow(Long id, String name, String description, Boolean available,
+                                                Long requestId) {
+        ItemBatchRequestDto row = new ItemBatchRequestDto();
+        row.setId(id);
+        row.setName(name);
+        row.setDescription(description);
+        row.setAvailable(available);
+        row.setRequestId(requestId);
+        return row;
+    }
+
+    @Test
+    void itemEtagsCheckUserAndItem() {
+        assertThrows(NotFoundException.class, () ->
+                itemService.getItemByIdEtag(item.getId(), owner.getId(), 0, 20));
+        assertThrows(NotFoundException.class, () ->
+                itemService.getItemsByUserEtag(owner.getId()));
+        assertThrows(ValidationException.class, () ->
+                itemService.getItemByIdEtag(item.getId(), owner.getId(), -1, 20));
+
+        when(existenceChecker.userExists(anyLong())).thenReturn(true);
+        when(itemRepository.getItemStamp(999L)).thenReturn(new VersionStamp(0L, null, null));
+
+        assertThrows(NotFoundException.class, () ->
+                itemService.getItemByIdEtag(999L, owner.getId(), 0, 20));
+    }
+}
@@ -6,6 +6,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.server.common.ExistenceChecker;
+import ru.practicum.shareit.server.common.VersionStamp;
 import ru.practicum.shareit.server.exception.NotFoundException;
 import ru.practicum.shareit.server.item.dal.ItemRepository;
 import ru.practicum.shareit.server.item.model.Item;
@@ -16,7 +18,6 @@ import ru.practicum.shareit.server.request.model.Request;
 import ru.practicum.shareit.server.request.repository.RequestRepository;
 import ru.practicum.shareit.server.request.service.RequestServiceImpl;
 import ru.practicum.shareit.server.user.model.User;
-import ru.practicum.shareit.server.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -35,7 +36,7 @@ class RequestServiceTest {
     private ItemRepository itemRepository;
 
     @Mock
-    private UserRepository userRepository;
+    private ExistenceChecker existenceChecker;
 
     @InjectMocks
     private RequestServiceImpl requestService;
@@ -74,7 +75,7 @@ class RequestServiceTest {
         RequestRequestDto dto = new RequestRequestDto();
         dto.setDescription("Need a test item");
 
-        when(userRepository.getUserById(anyLong())).thenReturn(Optional.of(user));
+        when(existenceChecker.userExists(anyLong())).thenReturn(true);
         when(requestRepository.save(any(Request.class))).thenReturn(request);
 
         RequestResponseDto result = requestService.createRequest(dto, user.getId());
@@ -89,7 +90,7 @@ class RequestServiceTest {
         RequestRequestDto dto = new RequestRequestDto();
         dto.setDescription("Need a test item");
 
-        when(userRepository.getUserById(anyLong())).thenReturn(Optional.empty());
+        when(existenceChecker.userExists(anyLong())).thenReturn(false);
 
         assertThrows(NotFoundException.class, () ->
                 requestService.createRequest(dto, 999L));
@@ -98,7 +99,7 @@ class RequestServiceTest {
 
     @Test
     void getUserRequests_success() {
-        when(userRepository.getUserById(anyLong())).thenReturn(Optional.of(user));
+        when(existenceChecker.userExists(anyLong())).thenReturn(true);
         when(requestRepository.findAllByRequestorOrderByCreated(anyLong())).thenReturn(List.of(request));
 
         Set<Request> requestList = new HashSet<>();
@@ -123,7 +124,7 @@ class RequestServiceTest {
 
     @Test
     void getUserRequests_userNotFound_throwsNotFoundException() {
-        when(userRepository.getUserById(anyLong())).thenReturn(Optional.empty());
+        when(existenceChecker.userExists(anyLong())).thenReturn(false);
 
         assertThrows(NotFoundException.class, () ->
                 requestService.getUserRequests(999L));
@@ -141,8 +142,7 @@ class RequestServiceTest {
 
 
         Long userId = user.getId();
-        when(userRepository.getUserById(userId))
-                .thenReturn(Optional.of(user));
+        when(existenceChecker.userExists(userId)).thenReturn(true);
 
         Set<Request> requestList = new HashSet<>();
         requestList.add(request);
@@ -169,7 +169,7 @@ class RequestServiceTest {
 
     @Test
     void getOtherUsersRequests_userNotFound_throwsNotFoundException() {
-        when(userRepository.getUserById(anyLong())).thenReturn(Optional.empty());
+        when(existenceChecker.userExists(anyLong())).thenReturn(false);
 
         assertThrows(NotFoundException.class, () ->
                 requestService.getOtherUsersRequests(999L));
@@ -195,4 +195,12 @@ class RequestServiceTest {
         assertThrows(NotFoundException.class, () ->
                 requestService.getRequestById(999L));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getRequestByIdEtag_requestNotFound_throwsNotFoundException() {
+        when(requestRepository.getRequestStamp(anyLong())).thenReturn(new VersionStamp(0L, null, null));
+
+        assertThrows(NotFoundException.class, () ->
+                requestService.getRequestByIdEtag(999L));
+    }
+}
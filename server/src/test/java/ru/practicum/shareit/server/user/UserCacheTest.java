@@ -0,0 +1,102 @@
+package ru.practicum.shareit.server.user;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import ru.practicum.shareit.server.config.CacheConfig;
+import ru.practicum.shareit.server.user.dto.UserRequestDto;
+import ru.practicum.shareit.server.user.dto.UserResponseDto;
+import ru.practicum.shareit.server.user.model.User;
+import ru.practicum.shareit.server.user.repository.UserRepository;
+import ru.practicum.shareit.server.user.service.UserService;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class UserCacheTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Cache cache;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        cache = cacheManager.getCache(CacheConfig.USERS_CACHE);
+        cache.clear();
+
+        UserRequestDto dto = new UserRequestDto();
+        dto.setName("Cached");
+        dto.setEmail("cached" + System.nanoTime() + "@test.ru");
+        userId = userService.createUser(dto).getId();
+    }
+
+    @Test
+    void getUserByIdIsCached() {
+        assertNull(cache.get(userId));
+
+        userService.getUserById(userId);
+
+        User cached = cache.get(userId, User.class);
+        assertNotNull(cached);
+        assertSame(cached, userRepository.getUserById(userId).orElseThrow());
+    }
+
+    @Test
+    void missingUserIsNotCached() {
+        assertTrue(userRepository.getUserById(-1L).isEmpty());
+
+        assertNull(cache.get(-1L));
+    }
+
+    @Test
+    void updateUserEvictsCachedUser() {
+        userService.getUserById(userId);
+
+        UserRequestDto update = new UserRequestDto();
+        update.setName("Renamed");
+        userService.updateUser(update, userId);
+
+        assertNull(cache.get(userId));
+        UserResponseDto reloaded = userService.getUserById(userId);
+        assertEquals("Renamed", reloaded.getName());
+    }
+
+    @Test
+    void updateUserIgnoresStaleCachedVersion() {
+        userService.getUserById(userId);
+
+        // Изменение на другом экземпляре: версия в базе растет, а кэш здесь не сбрасывается
+        User changedElsewhere = userRepository.findById(userId).orElseThrow();
+        changedElsewhere.setName("Changed elsewhere");
+        userRepository.save(changedElsewhere);
+
+        UserRequestDto update = new UserRequestDto();
+        update.setName("Renamed");
+        userService.updateUser(update, userId);
+
+        assertEquals("Renamed", userService.getUserById(userId).getName());
+    }
+
+    @Test
+    void deleteUserEvictsCachedUser() {
+        userService.getUserById(userId);
+
+        userService.deleteUser(userId);
+
+        assertNull(cache.get(userId));
+        assertEquals(Optional.empty(), userRepository.getUserById(userId));
+    }
+}
@@ -6,9 +6,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.shareit.server.booking.service.BusyCalendar;
+import ru.practicum.shareit.server.common.VersionStamp;
+import ru.practicum.shareit.server.events.ResourceChangedEvent;
 import ru.practicum.shareit.server.exception.ConflictException;
 import ru.practicum.shareit.server.exception.NotFoundException;
+import ru.practicum.shareit.server.item.search.ItemSearchEngine;
 import ru.practicum.shareit.server.user.dto.UserRequestDto;
 import ru.practicum.shareit.server.user.dto.UserResponseDto;
 import ru.practicum.shareit.server.user.model.User;
@@ -24,7 +29,13 @@ class UserServiceTest {
 
     @Mock
     UserRepository mockRepository;
-    UserService userService = new UserServiceImpl(mockRepository);
+    @Mock
+    ItemSearchEngine mockSearchEngine;
+    @Mock
+    ApplicationEventPublisher mockEvents;
+    @Mock
+    BusyCalendar mockCalendar;
+    UserService userService = new UserServiceImpl(mockRepository, mockSearchEngine, mockEvents, mockCalendar);
 
     @Test
     void createUserTest() {
@@ -85,7 +96,7 @@ class UserServiceTest {
         user.setEmail(requestDto.getEmail());
 
         Mockito
-                .when(mockRepository.getUserById(Mockito.anyLong()))
+                .when(mockRepository.findById(Mockito.anyLong()))
                 .thenReturn(Optional.of(user));
 
         Mockito
@@ -93,12 +104,14 @@ class UserServiceTest {
                 .thenReturn(user);
 
         ReflectionTestUtils.setField(userService, "repository", mockRepository);
+        ReflectionTestUtils.setField(userService, "events", mockEvents);
         UserResponseDto result = userService.updateUser(requestDto, 1L);
 
         Assertions.assertNotNull(result);
         Assertions.assertEquals(user.getId(), result.getId());
         Assertions.assertEquals(user.getName(), result.getName());
         Assertions.assertEquals(user.getEmail(), result.getEmail());
+        Mockito.verify(mockEvents).publishEvent(ResourceChangedEvent.user(1L));
     }
 
     @Test
@@ -106,11 +119,18 @@ class UserServiceTest {
         Long userId = 1L;
 
         ReflectionTestUtils.setField(userService, "repository", mockRepository);
+        ReflectionTestUtils.setField(userService, "itemSearchEngine", mockSearchEngine);
+        ReflectionTestUtils.setField(userService, "events", mockEvents);
+        ReflectionTestUtils.setField(userService, "calendar", mockCalendar);
         userService.deleteUser(userId);
 
         Mockito
                 .verify(mockRepository, Mockito.times(1))
                 .deleteById(userId);
+        Mockito
+                .verify(mockSearchEngine, Mockito.times(1))
+                .onOwnerDeleted(userId);
+        Mockito.verify(mockCalendar).onUserDeleted();
     }
 
 
@@ -126,6 +146,18 @@ class UserServiceTest {
         Assertions.assertThrows(NotFoundException.class, () -> userService.getUserById(1L));
     }
 
+    @Test
+    void userEtagNotFoundTest() {
+
+        Mockito
+                .when(mockRepository.getUserStamp(Mockito.anyLong()))
+                .thenReturn(new VersionStamp(0L, null, null));
+
+        ReflectionTestUtils.setField(userService, "repository", mockRepository);
+
+        Assertions.assertThrows(NotFoundException.class, () -> userService.getUserByIdEtag(1L));
+    }
+
     @Test
     void existingUserTest() {
 
@@ -160,7 +192,7 @@ class UserServiceTest {
         user.setEmail(requestDto.getEmail());
 
         Mockito
-                .when(mockRepository.getUserById(Mockito.anyLong()))
+                .when(mockRepository.findById(Mockito.anyLong()))
                 .thenReturn(Optional.of(user));
 
         Mockito
@@ -168,6 +200,7 @@ class UserServiceTest {
                 .thenReturn(user);
 
         ReflectionTestUtils.setField(userService, "repository", mockRepository);
+        ReflectionTestUtils.setField(userService, "events", mockEvents);
         UserResponseDto result = userService.updateUser(requestDto, 1L);
 
         Assertions.assertNotNull(result);
@@ -188,7 +221,7 @@ class UserServiceTest {
         user.setEmail(requestDto.getEmail());
 
         Mockito
-                .when(mockRepository.getUserById(Mockito.anyLong()))
+                .when(mockRepository.findById(Mockito.anyLong()))
                 .thenReturn(Optional.of(user));
 
         Mockito
@@ -196,6 +229,7 @@ class UserServiceTest {
                 .thenReturn(user);
 
         ReflectionTestUtils.setField(userService, "repository", mockRepository);
+        ReflectionTestUtils.setField(userService, "events", mockEvents);
         UserResponseDto result = userService.updateUser(requestDto, 1L);
 
         Assertions.assertNotNull(result);